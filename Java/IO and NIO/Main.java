@@ -15,6 +15,8 @@ public class Main {
             System.out.println("4. Copy a file");
             System.out.println("5. Serialize file metadata");
             System.out.println("6. Deserialize and display metadata");
+            System.out.println("7. Compare two metadata snapshots");
+            System.out.println("8. Rebuild the search index of a directory");
             System.out.println("0. Exit");
             System.out.print("Choose an option: ");
             String choice = scanner.nextLine();
@@ -37,6 +39,12 @@ public class Main {
                 case "6":
                     deserializeMetadata();
                     break;
+                case "7":
+                    compareSnapshots();
+                    break;
+                case "8":
+                    rebuildIndex();
+                    break;
                 case "0":
                     System.out.println("Goodbye!");
                     return;
@@ -49,6 +57,16 @@ public class Main {
     private static void listFiles() {
         System.out.print("Enter directory path: ");
         String dir = scanner.nextLine();
+        System.out.print("Include subdirectories? (y/n): ");
+        if ("y".equalsIgnoreCase(scanner.nextLine().trim())) {
+            long count = FileBrowser.listFilesRecursive(dir, Integer.MAX_VALUE, path -> {
+                synchronized (System.out) {
+                    System.out.println(path);
+                }
+            });
+            System.out.println(count + " files found.");
+            return;
+        }
         List<String> files = FileBrowser.listFiles(dir);
         if (files.isEmpty()) {
             System.out.println("No files found or invalid directory.");
@@ -62,7 +80,10 @@ public class Main {
         String dir = scanner.nextLine();
         System.out.print("Enter keyword or extension: ");
         String keyword = scanner.nextLine();
-        List<String> matches = FileSearcher.searchFiles(dir, keyword);
+        System.out.print("Search subdirectories through the index? (y/n): ");
+        List<String> matches = "y".equalsIgnoreCase(scanner.nextLine().trim())
+                ? FileSearcher.searchIndexed(dir, keyword)
+                : FileSearcher.searchFiles(dir, keyword);
         if (matches.isEmpty()) {
             System.out.println("No matching files found.");
         } else {
@@ -70,12 +91,27 @@ public class Main {
         }
     }
 
+    private static void rebuildIndex() {
+        System.out.print("Enter directory path: ");
+        String dir = scanner.nextLine();
+        int files = FileSearcher.rebuildIndex(dir);
+        if (files < 0) {
+            System.out.println("Invalid directory.");
+        } else {
+            System.out.println("Index rebuilt, " + files + " files.");
+        }
+    }
+
     private static void readFile() {
         System.out.print("Enter file path: ");
         String filePath = scanner.nextLine();
-        System.out.println("Choose method: 1) BufferedReader 2) NIO");
+        System.out.println("Choose method: 1) BufferedReader 2) NIO 3) Memory-mapped parallel (count lines)");
         String method = scanner.nextLine();
-        if ("1".equals(method)) {
+        if ("3".equals(method)) {
+            long start = System.currentTimeMillis();
+            long lines = FileReaderUtil.readFileMapped(filePath, Runtime.getRuntime().availableProcessors(), line -> { });
+            System.out.println(lines + " lines read in " + (System.currentTimeMillis() - start) + " ms");
+        } else if ("1".equals(method)) {
             FileReaderUtil.readFileBuffered(filePath, System.out::println);
         } else {
             FileReaderUtil.readFileNIO(filePath, System.out::println);
@@ -87,21 +123,45 @@ public class Main {
         String src = scanner.nextLine();
         System.out.print("Enter destination file path: ");
         String dst = scanner.nextLine();
-        FileCopier.copyFile(src, dst);
+        System.out.println("Choose method: 1) Zero-copy 2) Parallel chunks with checksum 3) Benchmark all methods");
+        String method = scanner.nextLine();
+        if ("3".equals(method)) {
+            FileCopier.benchmark(src, dst);
+        } else if ("2".equals(method)) {
+            long[] lastPercent = {-1};
+            long total = new File(src).length();
+            FileCopier.CopyOptions options = new FileCopier.CopyOptions()
+                    .parallelism(Runtime.getRuntime().availableProcessors())
+                    .verifyChecksum(true)
+                    .progress(done -> {
+                        long percent = total == 0 ? 100 : done * 100 / total;
+                        synchronized (lastPercent) {
+                            if (percent / 10 > lastPercent[0] / 10) {
+                                lastPercent[0] = percent;
+                                System.out.println(percent + "%");
+                            }
+                        }
+                    });
+            if (FileCopier.copyFile(src, dst, options) >= 0) {
+                System.out.println("File copied and verified.");
+            }
+        } else {
+            FileCopier.copyFile(src, dst);
+        }
     }
 
     private static void serializeMetadata() {
         System.out.print("Enter directory path: ");
         String dir = scanner.nextLine();
-        List<String> files = FileBrowser.listFiles(dir);
-        List<FileMetadata> metadataList = new ArrayList<>();
-        for (String fname : files) {
-            File f = new File(dir, fname);
-            metadataList.add(new FileMetadata(f.getName(), f.length(), f.lastModified()));
-        }
+        System.out.print("Include subdirectories? (y/n): ");
+        int maxDepth = "y".equalsIgnoreCase(scanner.nextLine().trim()) ? Integer.MAX_VALUE : 1;
         System.out.print("Enter output file for metadata: ");
         String outFile = scanner.nextLine();
-        MetadataManager.serializeMetadata(metadataList, outFile);
+        long start = System.currentTimeMillis();
+        long records = MetadataCapture.capture(dir, outFile, maxDepth, Runtime.getRuntime().availableProcessors());
+        if (records >= 0) {
+            System.out.println("Metadata of " + records + " files serialized in " + (System.currentTimeMillis() - start) + " ms.");
+        }
     }
 
     private static void deserializeMetadata() {
@@ -114,4 +174,31 @@ public class Main {
             metadataList.forEach(System.out::println);
         }
     }
+
+    private static void compareSnapshots() {
+        System.out.print("Enter older metadata file path: ");
+        String previous = scanner.nextLine();
+        System.out.print("Enter newer metadata file path: ");
+        String current = scanner.nextLine();
+        SnapshotDiff.Summary summary = SnapshotDiff.diff(previous, current, Runtime.getRuntime().availableProcessors(),
+                new SnapshotDiff.Listener() {
+                    @Override
+                    public synchronized void added(FileMetadata metadata) {
+                        System.out.println("+ " + metadata);
+                    }
+
+                    @Override
+                    public synchronized void removed(FileMetadata metadata) {
+                        System.out.println("- " + metadata);
+                    }
+
+                    @Override
+                    public synchronized void modified(FileMetadata before, FileMetadata after) {
+                        System.out.println("~ " + after);
+                    }
+                });
+        if (summary != null) {
+            System.out.println(summary);
+        }
+    }
 }
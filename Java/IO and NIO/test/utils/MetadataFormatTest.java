@@ -0,0 +1,56 @@
+package utils;
+
+import model.FileMetadata;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Checks that the sidecar index of a metadata file is usable (run with java -ea).
+ */
+public class MetadataFormatTest {
+    public static void main(String[] args) throws IOException {
+        Path dir = Files.createTempDirectory("metadata-format-test");
+        Path file = dir.resolve("snapshot.fvm");
+        try {
+            int records = 10_000;
+            try (MetadataWriter writer = MetadataWriter.create(file)) {
+                for (int i = 0; i < records; i++) {
+                    writer.write(new FileMetadata("dir" + (i % 7) + "/file" + i + ".txt", i, 1_700_000_000_000L + i));
+                }
+            }
+            int expectedBlocks = (records + MetadataFormat.RECORDS_PER_BLOCK - 1) / MetadataFormat.RECORDS_PER_BLOCK;
+
+            // Test: a fresh file's index starts with the magic and lists every block
+            byte[] index = Files.readAllBytes(MetadataFormat.indexPath(file));
+            assert Arrays.equals(Arrays.copyOf(index, 4), MetadataFormat.INDEX_MAGIC) : "Index should start with FVMI";
+            assert index.length == 4 + expectedBlocks * MetadataFormat.INDEX_ENTRY_SIZE : "Index should hold one entry per block";
+            List<MetadataFormat.BlockEntry> blocks = MetadataFormat.readIndex(MetadataFormat.indexPath(file), Files.size(file));
+            assert blocks.size() == expectedBlocks : "readIndex should return " + expectedBlocks + " blocks, got " + blocks.size();
+            assert blocks.get(blocks.size() - 1).end() == Files.size(file) : "Last block should end at the end of the file";
+
+            // Test: the index stays whole after an append
+            try (MetadataWriter writer = MetadataWriter.append(file)) {
+                for (int i = 0; i < records; i++) {
+                    writer.write(new FileMetadata("more/file" + i, i, i));
+                }
+            }
+            blocks = MetadataFormat.readIndex(MetadataFormat.indexPath(file), Files.size(file));
+            assert blocks.size() == expectedBlocks * 2 : "readIndex should return every block after append, got " + blocks.size();
+
+            // Test: records read back through the index
+            try (MetadataReader reader = MetadataReader.open(file)) {
+                assert reader.count() == records * 2L : "Should read " + records * 2 + " records";
+                assert reader.get(records + 5).getFilename().equals("more/file5") : "Random access should use the index";
+            }
+            System.out.println("All tests passed.");
+        } finally {
+            for (Path path : List.of(file, MetadataFormat.indexPath(file), dir)) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package utils;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Recursive directory walker that hands every entry to a callback as soon as it is found,
+ * so memory stays constant no matter how many files there are.
+ * Sequential mode uses Files.walkFileTree; parallel mode walks each subdirectory as its own
+ * fork-join task (DirectoryStream per directory), so large trees use all cores.
+ */
+public class DirectoryWalker {
+
+    /**
+     * Receives each matching entry. In parallel mode it is called from several threads at once.
+     */
+    @FunctionalInterface
+    public interface Visitor {
+        void visit(Path path, BasicFileAttributes attrs);
+    }
+
+    /**
+     * Walk options; defaults: unlimited depth, symlinks not followed, files only, no filter, sequential.
+     */
+    public static class Options {
+        private int maxDepth = Integer.MAX_VALUE;
+        private boolean followLinks = false;
+        private boolean includeDirectories = false;
+        private Predicate<Path> filter = path -> true;
+        private int parallelism = 1;
+
+        /** @param maxDepth 0 = only the root itself, 1 = its direct children, ... */
+        public Options maxDepth(int maxDepth) {
+            this.maxDepth = maxDepth;
+            return this;
+        }
+
+        /** @param followLinks descend into symlinked directories (cycles are detected and skipped) */
+        public Options followLinks(boolean followLinks) {
+            this.followLinks = followLinks;
+            return this;
+        }
+
+        /** @param includeDirectories also pass directories (other than the root) to the visitor */
+        public Options includeDirectories(boolean includeDirectories) {
+            this.includeDirectories = includeDirectories;
+            return this;
+        }
+
+        /** @param filter only entries it accepts reach the visitor; directories are descended regardless */
+        public Options filter(Predicate<Path> filter) {
+            this.filter = filter;
+            return this;
+        }
+
+        /** @param parallelism number of worker threads, 1 walks on the calling thread */
+        public Options parallelism(int parallelism) {
+            this.parallelism = Math.max(1, parallelism);
+            return this;
+        }
+    }
+
+    /**
+     * Walks the tree under root and calls visitor for every matching entry.
+     * Unreadable entries are reported on System.err and skipped.
+     * @param root Directory to walk
+     * @param options Depth, symlink, filter and parallelism options
+     * @param visitor Callback for each entry
+     * @return Number of entries passed to the visitor
+     */
+    public static long walk(Path root, Options options, Visitor visitor) {
+        if (!Files.isDirectory(root)) {
+            System.err.println("Not a directory: " + root);
+            return 0;
+        }
+        AtomicLong visited = new AtomicLong();
+        if (options.parallelism == 1) {
+            walkSequential(root, options, visitor, visited);
+        } else {
+            ForkJoinPool pool = new ForkJoinPool(options.parallelism);
+            try {
+                Set<Object> seenDirectories = ConcurrentHashMap.newKeySet();
+                pool.invoke(new DirectoryTask(root, 0, options, visitor, visited, seenDirectories));
+            } finally {
+                pool.shutdown();
+            }
+        }
+        return visited.get();
+    }
+
+    private static void walkSequential(Path root, Options options, Visitor visitor, AtomicLong visited) {
+        Set<FileVisitOption> visitOptions = options.followLinks
+                ? EnumSet.of(FileVisitOption.FOLLOW_LINKS) : EnumSet.noneOf(FileVisitOption.class);
+        try {
+            Files.walkFileTree(root, visitOptions, options.maxDepth, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                    if (!dir.equals(root)) {
+                        accept(dir, attrs, options, visitor, visited);
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    // at maxDepth walkFileTree reports directories here without entering them,
+                    // the root included when maxDepth is 0
+                    if (!file.equals(root)) {
+                        accept(file, attrs, options, visitor, visited);
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException e) {
+                    // FileSystemLoopException lands here too when following links
+                    System.err.println("Skipping " + file + ": " + e);
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            System.err.println("Error walking directory: " + e.getMessage());
+        }
+    }
+
+    private static void accept(Path path, BasicFileAttributes attrs, Options options, Visitor visitor, AtomicLong visited) {
+        if ((attrs.isDirectory() && !options.includeDirectories) || !options.filter.test(path)) {
+            return;
+        }
+        visitor.visit(path, attrs);
+        visited.incrementAndGet();
+    }
+
+    /**
+     * Lists one directory, reports its entries and forks a task per subdirectory.
+     * Never serialized; RecursiveAction is Serializable only through ForkJoinTask.
+     */
+    @SuppressWarnings("serial")
+    private static class DirectoryTask extends RecursiveAction {
+        private final Path dir;
+        private final int depth;
+        private final Options options;
+        private final Visitor visitor;
+        private final AtomicLong visited;
+        private final Set<Object> seenDirectories;
+
+        DirectoryTask(Path dir, int depth, Options options, Visitor visitor, AtomicLong visited, Set<Object> seenDirectories) {
+            this.dir = dir;
+            this.depth = depth;
+            this.options = options;
+            this.visitor = visitor;
+            this.visited = visited;
+            this.seenDirectories = seenDirectories;
+        }
+
+        @Override
+        protected void compute() {
+            if (depth >= options.maxDepth) {
+                return;
+            }
+            LinkOption[] linkOptions = options.followLinks ? new LinkOption[0] : new LinkOption[]{LinkOption.NOFOLLOW_LINKS};
+            if (options.followLinks && !firstVisit(dir)) {
+                System.err.println("Skipping " + dir + ": directory loop");
+                return;
+            }
+            List<DirectoryTask> subtasks = new ArrayList<>();
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(dir)) {
+                for (Path entry : entries) {
+                    BasicFileAttributes attrs;
+                    try {
+                        attrs = Files.readAttributes(entry, BasicFileAttributes.class, linkOptions);
+                    } catch (IOException e) {
+                        System.err.println("Skipping " + entry + ": " + e);
+                        continue;
+                    }
+                    accept(entry, attrs, options, visitor, visited);
+                    if (attrs.isDirectory()) {
+                        DirectoryTask subtask = new DirectoryTask(entry, depth + 1, options, visitor, visited, seenDirectories);
+                        subtask.fork();
+                        subtasks.add(subtask);
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("Skipping " + dir + ": " + e);
+            }
+            for (DirectoryTask subtask : subtasks) {
+                subtask.join();
+            }
+        }
+
+        // The same real directory reached twice through links means a cycle (or a duplicate), walk it once
+        private boolean firstVisit(Path directory) {
+            try {
+                Object key = Files.readAttributes(directory, BasicFileAttributes.class).fileKey();
+                return seenDirectories.add(key != null ? key : directory.toRealPath());
+            } catch (IOException e) {
+                return true;
+            }
+        }
+    }
+}
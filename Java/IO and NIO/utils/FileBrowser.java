@@ -1,8 +1,12 @@
 package utils;
 
-import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Utility class to list files in a directory.
@@ -15,12 +19,31 @@ public class FileBrowser {
      */
     public static List<String> listFiles(String dirPath) {
         List<String> files = new ArrayList<>();
-        File dir = new File(dirPath);
-        if (dir.exists() && dir.isDirectory()) {
-            for (File file : dir.listFiles()) {
-                files.add(file.getName());
+        Path dir = Path.of(dirPath);
+        if (Files.isDirectory(dir)) {
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(dir)) {
+                for (Path entry : entries) {
+                    files.add(entry.getFileName().toString());
+                }
+            } catch (IOException e) {
+                System.err.println("Error listing directory: " + e.getMessage());
             }
         }
         return files;
     }
+
+    /**
+     * Streams every file under the directory, recursively, to the consumer (one thread per core).
+     * Nothing is collected, so it works for trees of any size.
+     * @param dirPath Directory path
+     * @param maxDepth Maximum depth below dirPath (1 = direct children only)
+     * @param fileConsumer Consumer for each file path, called from several threads
+     * @return Number of files found
+     */
+    public static long listFilesRecursive(String dirPath, int maxDepth, Consumer<Path> fileConsumer) {
+        DirectoryWalker.Options options = new DirectoryWalker.Options()
+                .maxDepth(maxDepth)
+                .parallelism(Runtime.getRuntime().availableProcessors());
+        return DirectoryWalker.walk(Path.of(dirPath), options, (path, attrs) -> fileConsumer.accept(path));
+    }
 }
@@ -0,0 +1,488 @@
+package utils;
+
+import java.io.*;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Persistent index of the file names under one directory tree, so searches never re-list the disk.
+ * - Every file gets an id; each lowercase 3-character substring (trigram) of its name maps to the ids containing it,
+ *   and each extension maps to its ids. A keyword search intersects the posting lists of the keyword's trigrams
+ *   (smallest first) and then checks the few candidates left; ".ext" queries read the extension map directly.
+ * - save() writes the relative paths of the files and directories to disk; load() reads them back and rebuilds
+ *   the postings in memory. changedOnDisk() tells whether any directory was modified after the save
+ *   (changes made while nothing was watching), one stat per directory instead of a rescan.
+ * - startWatching() keeps it current with a WatchService on every directory of the tree
+ *   (created/deleted files and directories; an overflow triggers a full rescan). Directories are registered
+ *   before a tree is scanned, so a change lands either in the scan or in a watch event.
+ * - Deleted files only lose their id at first; once they are a quarter of all ids the postings are rebuilt
+ *   from the live paths (no disk access), so churn does not grow the index without bound.
+ */
+public class FileNameIndex implements Closeable {
+    private static final int MAGIC = 0x46564958; // "FVIX"
+    private static final int VERSION = 2;
+    private static final int GRAM = 3;
+    // Compact when deleted ids exceed 1/COMPACT_SHARE of all ids
+    private static final int COMPACT_SHARE = 4;
+    // Directory mtimes this close to the save time count as changes (coarse mtime resolution, events in flight)
+    private static final long MTIME_SLACK_MILLIS = 2000;
+
+    private final Path root;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<String> paths = new ArrayList<>();
+    private final BitSet deleted = new BitSet();
+    private int deletedCount;
+    private final TreeMap<String, Integer> idByPath = new TreeMap<>();
+    private final TreeSet<String> directories = new TreeSet<>();
+    private final Map<String, IntList> idsByGram = new HashMap<>();
+    private final Map<String, IntList> idsByExtension = new HashMap<>();
+
+    private WatchService watchService;
+    private final Map<WatchKey, Path> watchedDirectories = new HashMap<>();
+    private Thread watcher;
+    private volatile boolean dirty;
+    private long syncedAt;
+
+    private FileNameIndex(Path root) {
+        this.root = root.toAbsolutePath().normalize();
+    }
+
+    /**
+     * Builds the index by walking the whole tree (in parallel).
+     * @param rootDir Directory to index
+     * @return The index
+     */
+    public static FileNameIndex build(Path rootDir) {
+        FileNameIndex index = create(rootDir);
+        index.rebuild();
+        return index;
+    }
+
+    /**
+     * Creates an empty index, to be filled by rebuild() once startWatching() has registered the tree
+     * (scanning first would miss changes made before the watch keys exist).
+     * @param rootDir Directory to index
+     * @return The empty index
+     */
+    public static FileNameIndex create(Path rootDir) {
+        return new FileNameIndex(rootDir);
+    }
+
+    /**
+     * Loads an index written by save().
+     * @param indexFile Index file
+     * @return The index
+     * @throws IOException If the file cannot be read or is not an index file
+     */
+    public static FileNameIndex load(Path indexFile) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile), 1 << 16))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Not a file index: " + indexFile);
+            }
+            FileNameIndex index = new FileNameIndex(Path.of(in.readUTF()));
+            index.syncedAt = in.readLong();
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                index.addRelative(in.readUTF());
+            }
+            int directoryCount = in.readInt();
+            for (int i = 0; i < directoryCount; i++) {
+                index.directories.add(in.readUTF());
+            }
+            index.dirty = false;
+            return index;
+        }
+    }
+
+    /**
+     * Writes the live paths to the index file (atomically, through a temp file).
+     * @param indexFile Index file
+     * @throws IOException If writing fails
+     */
+    public void save(Path indexFile) throws IOException {
+        Path parent = indexFile.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, "index", ".tmp");
+        lock.readLock().lock();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeUTF(root.toString());
+            // a watched index is current up to now
+            if (watchService != null) {
+                syncedAt = System.currentTimeMillis();
+            }
+            out.writeLong(syncedAt);
+            out.writeInt(idByPath.size());
+            for (String path : idByPath.keySet()) {
+                out.writeUTF(path);
+            }
+            out.writeInt(directories.size());
+            for (String directory : directories) {
+                out.writeUTF(directory);
+            }
+            dirty = false;
+        } finally {
+            lock.readLock().unlock();
+        }
+        Files.move(temp, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Drops everything and re-reads the tree from disk.
+     */
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            clear();
+            directories.clear();
+            syncedAt = System.currentTimeMillis();
+            DirectoryWalker.walk(root, new DirectoryWalker.Options().includeDirectories(true)
+                            .parallelism(Runtime.getRuntime().availableProcessors()),
+                    (path, attrs) -> {
+                        String relative = root.relativize(path).toString();
+                        synchronized (this) {
+                            if (attrs.isDirectory()) {
+                                directories.add(relative);
+                            } else {
+                                addRelative(relative);
+                            }
+                        }
+                    });
+            dirty = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds files whose name contains the keyword (case-insensitive); ".ext" finds files with that extension.
+     * @param keywordOrExt Keyword or extension (e.g., ".txt")
+     * @return Matching paths relative to the indexed directory
+     */
+    public List<String> search(String keywordOrExt) {
+        String keyword = keywordOrExt.toLowerCase(Locale.ROOT);
+        List<String> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            if (keyword.startsWith(".") && keyword.indexOf('.', 1) < 0 && keyword.length() > 1) {
+                IntList ids = idsByExtension.get(keyword.substring(1));
+                if (ids != null) {
+                    for (int i = 0; i < ids.size; i++) {
+                        addIfLive(ids.values[i], matches);
+                    }
+                }
+                return matches;
+            }
+            if (keyword.length() < GRAM) {
+                // too short for trigrams, scan the names in memory
+                for (int id = 0; id < paths.size(); id++) {
+                    if (!deleted.get(id) && fileName(paths.get(id)).contains(keyword)) {
+                        matches.add(paths.get(id));
+                    }
+                }
+                return matches;
+            }
+            List<IntList> postings = new ArrayList<>();
+            for (int i = 0; i + GRAM <= keyword.length(); i++) {
+                IntList ids = idsByGram.get(keyword.substring(i, i + GRAM));
+                if (ids == null) {
+                    return matches;
+                }
+                postings.add(ids);
+            }
+            postings.sort(Comparator.comparingInt(list -> list.size));
+            IntList smallest = postings.get(0);
+            for (int i = 0; i < smallest.size; i++) {
+                int id = smallest.values[i];
+                boolean inAll = true;
+                for (int p = 1; p < postings.size() && inAll; p++) {
+                    inAll = postings.get(p).contains(id);
+                }
+                // trigrams can all be present without the keyword itself, check the real name
+                if (inAll && !deleted.get(id) && fileName(paths.get(id)).contains(keyword)) {
+                    matches.add(paths.get(id));
+                }
+            }
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return Number of files in the index
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return idByPath.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    /**
+     * Whether the tree changed since the index last matched it: the root or a known directory was modified
+     * (an entry added, removed or renamed in it) or is gone. Only stats the directories, it does not list them.
+     * @return true if rebuild() is needed to catch up
+     */
+    public boolean changedOnDisk() {
+        long since = syncedAt - MTIME_SLACK_MILLIS;
+        List<Path> check = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            check.add(root);
+            for (String directory : directories) {
+                check.add(root.resolve(directory));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        for (Path directory : check) {
+            try {
+                if (Files.getLastModifiedTime(directory, LinkOption.NOFOLLOW_LINKS).toMillis() > since) {
+                    return true;
+                }
+            } catch (IOException e) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Registers every directory of the tree with a WatchService and applies changes on a background thread.
+     * @throws IOException If the watch service cannot be created
+     */
+    public synchronized void startWatching() throws IOException {
+        if (watchService != null) {
+            return;
+        }
+        watchService = root.getFileSystem().newWatchService();
+        registerTree(root, false);
+        watcher = new Thread(this::watchLoop, "file-index-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+            watchService = null;
+        }
+    }
+
+    private void watchLoop() {
+        WatchService service = watchService;
+        while (true) {
+            WatchKey key;
+            try {
+                key = service.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+            Path dir;
+            synchronized (watchedDirectories) {
+                dir = watchedDirectories.get(key);
+            }
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    // events were lost, only a rescan is reliable; register first so nothing falls in between
+                    registerTree(root, false);
+                    rebuild();
+                    continue;
+                }
+                if (dir == null) {
+                    continue;
+                }
+                Path child = dir.resolve((Path) event.context());
+                if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE) {
+                    if (Files.isDirectory(child, LinkOption.NOFOLLOW_LINKS)) {
+                        // files may land in it before it is registered, so walk it as well
+                        addDirectory(child);
+                        registerTree(child, true);
+                    } else {
+                        add(child);
+                    }
+                } else if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+                    removeTree(child);
+                }
+            }
+            if (!key.reset()) {
+                synchronized (watchedDirectories) {
+                    watchedDirectories.remove(key);
+                }
+            }
+        }
+    }
+
+    private void registerTree(Path dir, boolean indexFiles) {
+        DirectoryWalker.Options options = new DirectoryWalker.Options().includeDirectories(true);
+        register(dir);
+        DirectoryWalker.walk(dir, options, (path, attrs) -> {
+            if (attrs.isDirectory()) {
+                register(path);
+                addDirectory(path);
+            } else if (indexFiles) {
+                add(path);
+            }
+        });
+    }
+
+    private void register(Path dir) {
+        try {
+            WatchKey key = dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_DELETE);
+            synchronized (watchedDirectories) {
+                watchedDirectories.put(key, dir);
+            }
+        } catch (IOException | ClosedWatchServiceException e) {
+            System.err.println("Cannot watch " + dir + ": " + e.getMessage());
+        }
+    }
+
+    private void add(Path file) {
+        lock.writeLock().lock();
+        try {
+            addRelative(root.relativize(file.toAbsolutePath().normalize()).toString());
+            dirty = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void addDirectory(Path dir) {
+        String relative = root.relativize(dir.toAbsolutePath().normalize()).toString();
+        if (relative.isEmpty()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            dirty |= directories.add(relative);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // A deleted directory arrives as one event, drop every path under it
+    private void removeTree(Path path) {
+        String relative = root.relativize(path.toAbsolutePath().normalize()).toString();
+        lock.writeLock().lock();
+        try {
+            Integer id = idByPath.remove(relative);
+            if (id != null) {
+                markDeleted(id);
+            }
+            directories.remove(relative);
+            String prefix = relative + path.getFileSystem().getSeparator();
+            Iterator<Map.Entry<String, Integer>> under = idByPath.tailMap(prefix, true).entrySet().iterator();
+            while (under.hasNext()) {
+                Map.Entry<String, Integer> entry = under.next();
+                if (!entry.getKey().startsWith(prefix)) {
+                    break;
+                }
+                markDeleted(entry.getValue());
+                under.remove();
+            }
+            Iterator<String> directoriesUnder = directories.tailSet(prefix, true).iterator();
+            while (directoriesUnder.hasNext() && directoriesUnder.next().startsWith(prefix)) {
+                directoriesUnder.remove();
+            }
+            if (deletedCount > paths.size() / COMPACT_SHARE) {
+                compact();
+            }
+            dirty = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void markDeleted(int id) {
+        if (!deleted.get(id)) {
+            deleted.set(id);
+            deletedCount++;
+        }
+    }
+
+    // Caller holds the write lock. Re-numbers the live paths, dropping the deleted ids from every posting list.
+    private void compact() {
+        List<String> live = new ArrayList<>(idByPath.keySet());
+        clear();
+        for (String path : live) {
+            addRelative(path);
+        }
+    }
+
+    // Caller holds the write lock
+    private void clear() {
+        paths.clear();
+        deleted.clear();
+        deletedCount = 0;
+        idByPath.clear();
+        idsByGram.clear();
+        idsByExtension.clear();
+    }
+
+    // Caller holds the write lock (or owns the index exclusively)
+    private void addRelative(String relativePath) {
+        if (idByPath.containsKey(relativePath)) {
+            return;
+        }
+        int id = paths.size();
+        paths.add(relativePath);
+        idByPath.put(relativePath, id);
+        String name = fileName(relativePath);
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i + GRAM <= name.length(); i++) {
+            String gram = name.substring(i, i + GRAM);
+            if (seen.add(gram)) {
+                idsByGram.computeIfAbsent(gram, g -> new IntList()).add(id);
+            }
+        }
+        int dot = name.lastIndexOf('.');
+        if (dot >= 0 && dot < name.length() - 1) {
+            idsByExtension.computeIfAbsent(name.substring(dot + 1), e -> new IntList()).add(id);
+        }
+    }
+
+    private void addIfLive(int id, List<String> matches) {
+        if (!deleted.get(id)) {
+            matches.add(paths.get(id));
+        }
+    }
+
+    private static String fileName(String relativePath) {
+        int slash = Math.max(relativePath.lastIndexOf('/'), relativePath.lastIndexOf('\\'));
+        return relativePath.substring(slash + 1).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Growable sorted int array; ids are appended in increasing order, so contains() is a binary search.
+     */
+    private static class IntList {
+        int[] values = new int[4];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        boolean contains(int value) {
+            return Arrays.binarySearch(values, 0, size, value) >= 0;
+        }
+    }
+}
@@ -3,14 +3,28 @@ package utils;
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Utility class to read large files line-by-line.
  */
 public class FileReaderUtil {
+    // Largest region one MappedByteBuffer can map
+    private static final long MAX_MAPPING = Integer.MAX_VALUE;
+
     /**
      * Reads a file line-by-line using BufferedReader.
      * @param filePath Path to file
@@ -33,10 +47,134 @@ public class FileReaderUtil {
      * @param lineConsumer Consumer for each line
      */
     public static void readFileNIO(String filePath, Consumer<String> lineConsumer) {
-        try {
-            Files.lines(Path.of(filePath)).forEach(lineConsumer);
+        try (Stream<String> lines = Files.lines(Path.of(filePath))) {
+            lines.forEach(lineConsumer);
         } catch (IOException e) {
             System.err.println("Error reading file: " + e.getMessage());
         }
     }
+
+    /**
+     * Reads a file by memory-mapping it in segments and scanning the segments in parallel.
+     * Segment boundaries are moved to just after a newline, so no line is split. Each line is passed as a
+     * reused LineSlice over the mapped bytes (no String per line); "\r\n" endings are trimmed.
+     * Lines of different segments arrive concurrently and out of order; within a segment they are in order.
+     * @param filePath Path to file
+     * @param parallelism Number of segments scanned at once
+     * @param lineConsumer Consumer for each line, called from several threads
+     * @return Number of lines, or -1 on error
+     */
+    public static long readFileMapped(String filePath, int parallelism, Consumer<LineSlice> lineConsumer) {
+        try (FileChannel channel = FileChannel.open(Path.of(filePath), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size == 0) {
+                return 0;
+            }
+            // more segments than threads evens out uneven lines
+            long segmentSize = Math.min(MAX_MAPPING, Math.max(1 << 20, size / (parallelism * 4L) + 1));
+            List<long[]> segments = new ArrayList<>();
+            long start = 0;
+            while (start < size) {
+                long end = start + segmentSize >= size ? size : nextLineStart(channel, start + segmentSize, size);
+                if (end - start > MAX_MAPPING) {
+                    // moving to the line boundary went past what one mapping holds, end at the last line that fits
+                    end = lastLineStart(channel, start, start + MAX_MAPPING);
+                }
+                segments.add(new long[]{start, end});
+                start = end;
+            }
+            ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, Math.min(parallelism, segments.size())));
+            try {
+                List<Future<Long>> results = new ArrayList<>();
+                for (long[] segment : segments) {
+                    results.add(pool.submit(() -> scanSegment(channel, segment[0], segment[1], lineConsumer)));
+                }
+                long lines = 0;
+                for (Future<Long> result : results) {
+                    lines += result.get();
+                }
+                return lines;
+            } finally {
+                pool.shutdown();
+            }
+        } catch (IOException | ExecutionException e) {
+            System.err.println("Error reading file: " + e.getMessage());
+            return -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        }
+    }
+
+    private static long scanSegment(FileChannel channel, long start, long end, Consumer<LineSlice> lineConsumer) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        LineSlice slice = new LineSlice();
+        int limit = buffer.limit();
+        int lineStart = 0;
+        long lines = 0;
+        for (int i = 0; i < limit; i++) {
+            if (buffer.get(i) == '\n') {
+                emit(buffer, lineStart, i, start, slice, lineConsumer);
+                lineStart = i + 1;
+                lines++;
+            }
+        }
+        if (lineStart < limit) {
+            // last line of the file without a trailing newline
+            emit(buffer, lineStart, limit, start, slice, lineConsumer);
+            lines++;
+        }
+        return lines;
+    }
+
+    private static void emit(ByteBuffer buffer, int from, int to, long segmentStart, LineSlice slice, Consumer<LineSlice> lineConsumer) {
+        int end = to > from && buffer.get(to - 1) == '\r' ? to - 1 : to;
+        slice.set(buffer, from, end - from, segmentStart + from);
+        lineConsumer.accept(slice);
+    }
+
+    // Last position in (floor, ceiling] that follows a newline
+    private static long lastLineStart(FileChannel channel, long floor, long ceiling) throws IOException {
+        ByteBuffer chunk = ByteBuffer.allocate(8 * 1024);
+        long position = ceiling;
+        while (position > floor) {
+            int length = (int) Math.min(chunk.capacity(), position - floor);
+            chunk.clear().limit(length);
+            int read = 0;
+            while (read < length) {
+                int n = channel.read(chunk, position - length + read);
+                if (n <= 0) {
+                    throw new IOException("Unexpected end of file at " + (position - length + read));
+                }
+                read += n;
+            }
+            for (int i = length - 1; i >= 0; i--) {
+                if (chunk.get(i) == '\n') {
+                    return position - length + i + 1;
+                }
+            }
+            position -= length;
+        }
+        throw new IOException("Line at offset " + floor + " is longer than " + (ceiling - floor) + " bytes");
+    }
+
+    // First position after the next newline at or after from (size if there is none)
+    private static long nextLineStart(FileChannel channel, long from, long size) throws IOException {
+        ByteBuffer chunk = ByteBuffer.allocate(8 * 1024);
+        long position = from;
+        while (position < size) {
+            chunk.clear();
+            int read = channel.read(chunk, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (chunk.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
 }
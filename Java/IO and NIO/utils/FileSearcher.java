@@ -1,13 +1,29 @@
 package utils;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Utility class to search files by keyword or extension.
  */
 public class FileSearcher {
+    private static final Path INDEX_DIR = Path.of(System.getProperty("user.home"), ".filevault", "index");
+    private static final Map<Path, FileNameIndex> OPEN_INDEXES = new ConcurrentHashMap<>();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(FileSearcher::saveIndexes));
+    }
+
     /**
      * Search files by keyword or extension in a directory.
      * @param dirPath Directory path
@@ -17,8 +33,9 @@ public class FileSearcher {
     public static List<String> searchFiles(String dirPath, String keywordOrExt) {
         List<String> matches = new ArrayList<>();
         File dir = new File(dirPath);
-        if (dir.exists() && dir.isDirectory()) {
-            for (File file : dir.listFiles()) {
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files) {
                 if (file.getName().contains(keywordOrExt) || file.getName().endsWith(keywordOrExt)) {
                     matches.add(file.getName());
                 }
@@ -26,4 +43,95 @@ public class FileSearcher {
         }
         return matches;
     }
+
+    /**
+     * Search the whole tree under a directory through its FileNameIndex (case-insensitive).
+     * The first call per directory loads the index from ~/.filevault/index (or builds and saves it)
+     * and starts watching the tree; later calls only read memory.
+     * @param dirPath Directory path
+     * @param keywordOrExt Keyword or extension (e.g., ".txt")
+     * @return List of matching paths relative to the directory
+     */
+    public static List<String> searchIndexed(String dirPath, String keywordOrExt) {
+        Path dir = Path.of(dirPath).toAbsolutePath().normalize();
+        if (!Files.isDirectory(dir)) {
+            return new ArrayList<>();
+        }
+        FileNameIndex index = OPEN_INDEXES.computeIfAbsent(dir, FileSearcher::openIndex);
+        return index.search(keywordOrExt);
+    }
+
+    /**
+     * Re-reads the tree of an indexed directory from disk, e.g. when the watcher could not follow it
+     * (network drives, watch limits).
+     * @param dirPath Directory path
+     * @return Number of files in the rebuilt index, -1 if the directory does not exist
+     */
+    public static int rebuildIndex(String dirPath) {
+        Path dir = Path.of(dirPath).toAbsolutePath().normalize();
+        if (!Files.isDirectory(dir)) {
+            return -1;
+        }
+        FileNameIndex index = OPEN_INDEXES.computeIfAbsent(dir, FileSearcher::openIndex);
+        index.rebuild();
+        saveIndex(index);
+        return index.size();
+    }
+
+    private static FileNameIndex openIndex(Path dir) {
+        Path indexFile = indexFile(dir);
+        FileNameIndex index = null;
+        if (Files.exists(indexFile)) {
+            try {
+                index = FileNameIndex.load(indexFile);
+            } catch (IOException e) {
+                System.err.println("Error loading index, rebuilding: " + e.getMessage());
+            }
+        }
+        boolean scan;
+        if (index == null || !index.getRoot().equals(dir)) {
+            index = FileNameIndex.create(dir);
+            scan = true;
+        } else {
+            // changed while the app was not running
+            scan = index.changedOnDisk();
+        }
+        // Watch before scanning: a change made during the scan is then either seen by it or reported as an event
+        try {
+            index.startWatching();
+        } catch (IOException e) {
+            System.err.println("Error watching directory, index will not follow changes: " + e.getMessage());
+        }
+        if (scan) {
+            index.rebuild();
+            saveIndex(index);
+        }
+        return index;
+    }
+
+    private static void saveIndexes() {
+        for (FileNameIndex index : OPEN_INDEXES.values()) {
+            if (index.isDirty()) {
+                saveIndex(index);
+            }
+        }
+    }
+
+    private static void saveIndex(FileNameIndex index) {
+        try {
+            index.save(indexFile(index.getRoot()));
+        } catch (IOException e) {
+            System.err.println("Error saving index: " + e.getMessage());
+        }
+    }
+
+    // SHA-256 of the path, so two directories never share an index file
+    private static Path indexFile(Path dir) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(dir.toString().getBytes(StandardCharsets.UTF_8));
+            return INDEX_DIR.resolve(HexFormat.of().formatHex(digest) + ".idx");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
 }
@@ -0,0 +1,125 @@
+package utils;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * One line of a mapped file, as a view over its bytes (no copy, no String).
+ * Instances are reused for the next line, so keep toString() (or your own copy), not the slice itself.
+ * As a CharSequence every byte is one char (ISO-8859-1), so length(), charAt(), subSequence() and toString()
+ * agree on any input; use toString(UTF_8) to decode other text.
+ */
+public class LineSlice implements CharSequence {
+    private ByteBuffer buffer;
+    private int start;
+    private int length;
+    private long fileOffset;
+
+    void set(ByteBuffer buffer, int start, int length, long fileOffset) {
+        this.buffer = buffer;
+        this.start = start;
+        this.length = length;
+        this.fileOffset = fileOffset;
+    }
+
+    /**
+     * @return Position of the line's first byte in the file
+     */
+    public long getFileOffset() {
+        return fileOffset;
+    }
+
+    /**
+     * @param index Byte index within the line
+     * @return The byte
+     * @throws IndexOutOfBoundsException If index is not in [0, length())
+     */
+    public byte byteAt(int index) {
+        checkIndex(index);
+        return buffer.get(start + index);
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        checkIndex(index);
+        return (char) (buffer.get(start + index) & 0xFF);
+    }
+
+    // The buffer continues past the line, so an unchecked index would read the next line's bytes
+    private void checkIndex(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("index " + index + " of length " + length);
+        }
+    }
+
+    /**
+     * @param prefix ASCII text
+     * @return Whether the line starts with it, compared byte by byte
+     */
+    public boolean startsWith(String prefix) {
+        if (prefix.length() > length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (charAt(i) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param text ASCII text
+     * @return Whether the line contains it, compared byte by byte
+     */
+    public boolean contains(String text) {
+        outer:
+        for (int i = 0; i + text.length() <= length; i++) {
+            for (int j = 0; j < text.length(); j++) {
+                if (charAt(i + j) != text.charAt(j)) {
+                    continue outer;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return A slice over the same bytes (no copy)
+     */
+    @Override
+    public CharSequence subSequence(int from, int to) {
+        if (from < 0 || to > length || from > to) {
+            throw new IndexOutOfBoundsException("subSequence(" + from + ", " + to + ") of length " + length);
+        }
+        LineSlice slice = new LineSlice();
+        slice.set(buffer, start + from, to - from, fileOffset + from);
+        return slice;
+    }
+
+    /**
+     * Decodes the line (allocates).
+     * @param charset Charset of the file
+     * @return The line as a String
+     */
+    public String toString(Charset charset) {
+        byte[] bytes = new byte[length];
+        buffer.get(start, bytes, 0, length);
+        return new String(bytes, charset);
+    }
+
+    /**
+     * @return The bytes as ISO-8859-1, one char per byte like charAt()
+     */
+    @Override
+    public String toString() {
+        return toString(StandardCharsets.ISO_8859_1);
+    }
+}
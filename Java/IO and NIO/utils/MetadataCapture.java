@@ -0,0 +1,94 @@
+package utils;
+
+import model.FileMetadata;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Captures a metadata snapshot of a directory tree.
+ * Size and last-modified time come from the BasicFileAttributes the walk already reads (one stat per file),
+ * the walk runs on DirectoryWalker's parallel pool, and records go through a small bounded queue straight
+ * into a MetadataWriter, so the tree is never held in memory.
+ * Filenames are stored relative to the captured directory, with '/' separators.
+ */
+public class MetadataCapture {
+    private static final int QUEUE_CAPACITY = 8192;
+    private static final FileMetadata END = new FileMetadata("", 0, 0);
+
+    /**
+     * Writes one record per file under dirPath to a new snapshot file.
+     * @param dirPath Directory to capture
+     * @param snapshotPath Output snapshot file (overwritten)
+     * @param maxDepth Maximum depth below dirPath (1 = direct children only)
+     * @param parallelism Walker threads
+     * @return Number of records written, or -1 on error
+     */
+    public static long capture(String dirPath, String snapshotPath, int maxDepth, int parallelism) {
+        Path root = Path.of(dirPath).toAbsolutePath().normalize();
+        if (!Files.isDirectory(root)) {
+            System.err.println("Not a directory: " + dirPath);
+            return -1;
+        }
+        BlockingQueue<FileMetadata> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        AtomicBoolean aborted = new AtomicBoolean();
+        DirectoryWalker.Options options = new DirectoryWalker.Options().maxDepth(maxDepth).parallelism(parallelism);
+        Thread walker = new Thread(() -> {
+            try {
+                DirectoryWalker.walk(root, options, (path, attrs) -> put(queue,
+                        new FileMetadata(relativeName(root, path), attrs.size(), attrs.lastModifiedTime().toMillis()), aborted));
+            } catch (CancellationException e) {
+                // writer failed, stop walking
+            } finally {
+                put(queue, END, aborted);
+            }
+        }, "metadata-capture");
+        walker.setDaemon(true);
+        walker.start();
+
+        try (MetadataWriter writer = MetadataWriter.create(Path.of(snapshotPath))) {
+            while (true) {
+                FileMetadata metadata = queue.take();
+                if (metadata == END) {
+                    break;
+                }
+                writer.write(metadata);
+            }
+            return writer.getRecordCount();
+        } catch (IOException e) {
+            aborted.set(true);
+            System.err.println("Error writing snapshot: " + e.getMessage());
+            return -1;
+        } catch (InterruptedException e) {
+            aborted.set(true);
+            Thread.currentThread().interrupt();
+            return -1;
+        }
+    }
+
+    // Blocks while the writer is behind; gives up once the writer has failed
+    private static void put(BlockingQueue<FileMetadata> queue, FileMetadata metadata, AtomicBoolean aborted) {
+        try {
+            while (!queue.offer(metadata, 100, TimeUnit.MILLISECONDS)) {
+                if (aborted.get()) {
+                    throw new CancellationException();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException();
+        }
+    }
+
+    static String relativeName(Path root, Path path) {
+        String relative = root.relativize(path).toString();
+        return File.separatorChar == '/' ? relative : relative.replace(File.separatorChar, '/');
+    }
+}
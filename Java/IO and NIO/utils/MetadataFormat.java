@@ -0,0 +1,248 @@
+package utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Layout of the binary metadata file shared by MetadataWriter and MetadataReader.
+ * <pre>
+ * file   := "FVMD" version:u8 flags:u8 block*        (flags bit 0: records sorted by filename)
+ * block  := varint(bodyLength) body
+ * body   := varint(recordCount) varint(dictCount) string{dictCount} (varint(recordLength) record){recordCount}
+ * record := varint(dirRef) string(name) varint(size) zigzag(lastModified) [fields added by later versions]
+ * string := varint(byteLength) utf8
+ * </pre>
+ * A filename "a/b/c.txt" is stored as directory "a/b" (an entry of the block's dictionary, dirRef = index + 1,
+ * 0 = no directory) plus name "c.txt". Blocks are self-contained, so appends only add blocks and any block
+ * can be decoded on its own. The sidecar "file.idx" holds one fixed-size entry per block
+ * (first record number, offset, length, record count) for random access.
+ */
+final class MetadataFormat {
+    static final byte[] MAGIC = {'F', 'V', 'M', 'D'};
+    static final byte[] INDEX_MAGIC = {'F', 'V', 'M', 'I'};
+    static final int VERSION = 1;
+    static final int FLAG_SORTED_BY_NAME = 1;
+    static final int FLAGS_OFFSET = 5;
+    static final int HEADER_SIZE = 6;
+    static final int INDEX_ENTRY_SIZE = 24;
+    static final int RECORDS_PER_BLOCK = 4096;
+
+    private MetadataFormat() {
+    }
+
+    /**
+     * One block as recorded in the sidecar index.
+     */
+    record BlockEntry(long firstRecord, long offset, int length, int recordCount) {
+        long end() {
+            return offset + length;
+        }
+    }
+
+    static Path indexPath(Path dataFile) {
+        return dataFile.resolveSibling(dataFile.getFileName() + ".idx");
+    }
+
+    /**
+     * @return The header flags
+     */
+    static int checkHeader(FileChannel channel, Path file) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        channel.read(header, 0);
+        if (header.position() < HEADER_SIZE || !Arrays.equals(Arrays.copyOf(header.array(), 4), MAGIC)) {
+            throw new IOException("Not a metadata file: " + file);
+        }
+        int version = header.get(4);
+        if (version > VERSION) {
+            throw new IOException("Metadata file version " + version + " is newer than supported " + VERSION);
+        }
+        return header.get(FLAGS_OFFSET);
+    }
+
+    /**
+     * Block list of a data file: the sidecar entries that still match the file, then a scan of any blocks after them.
+     * A torn block at the end (interrupted write) is left out.
+     */
+    static List<BlockEntry> loadBlocks(FileChannel channel, Path dataFile) throws IOException {
+        List<BlockEntry> blocks = readIndex(indexPath(dataFile), channel.size());
+        long offset = blocks.isEmpty() ? HEADER_SIZE : blocks.get(blocks.size() - 1).end();
+        long nextRecord = blocks.isEmpty() ? 0 : blocks.get(blocks.size() - 1).firstRecord() + blocks.get(blocks.size() - 1).recordCount();
+        long size = channel.size();
+        ByteBuffer head = ByteBuffer.allocate(10);
+        while (offset < size) {
+            head.clear();
+            channel.read(head, offset);
+            ByteReader reader = new ByteReader(head.array(), 0, head.position());
+            long bodyLength;
+            int count;
+            try {
+                bodyLength = reader.readVarLong();
+                count = (int) reader.readVarLong();
+            } catch (IOException e) {
+                break;
+            }
+            int prefix = varLongSize(bodyLength);
+            if (offset + prefix + bodyLength > size) {
+                break;
+            }
+            blocks.add(new BlockEntry(nextRecord, offset, (int) (prefix + bodyLength), count));
+            nextRecord += count;
+            offset += prefix + bodyLength;
+        }
+        return blocks;
+    }
+
+    /**
+     * Sidecar entries that chain from the first block and lie inside the data file.
+     * An index without the magic (or unreadable) yields no entries, loadBlocks then scans the data file.
+     */
+    static List<BlockEntry> readIndex(Path indexFile, long dataSize) {
+        List<BlockEntry> blocks = new ArrayList<>();
+        if (!Files.exists(indexFile)) {
+            return blocks;
+        }
+        try (FileChannel index = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(index.size(), Integer.MAX_VALUE - 8));
+            while (buffer.hasRemaining() && index.read(buffer) > 0) {
+                // read it all
+            }
+            buffer.flip();
+            byte[] magic = new byte[4];
+            if (buffer.remaining() < 4) {
+                return blocks;
+            }
+            buffer.get(magic);
+            if (!Arrays.equals(magic, INDEX_MAGIC)) {
+                return blocks;
+            }
+            long expectedFirst = 0;
+            long expectedOffset = HEADER_SIZE;
+            while (buffer.remaining() >= INDEX_ENTRY_SIZE) {
+                BlockEntry entry = new BlockEntry(buffer.getLong(), buffer.getLong(), buffer.getInt(), buffer.getInt());
+                // entries must chain and lie inside the data file, anything else is stale
+                if (entry.firstRecord() != expectedFirst || entry.offset() != expectedOffset || entry.end() > dataSize) {
+                    break;
+                }
+                blocks.add(entry);
+                expectedFirst += entry.recordCount();
+                expectedOffset = entry.end();
+            }
+        } catch (IOException e) {
+            blocks.clear();
+        }
+        return blocks;
+    }
+
+    static ByteBuffer encodeIndexEntry(BlockEntry entry) {
+        ByteBuffer buffer = ByteBuffer.allocate(INDEX_ENTRY_SIZE);
+        buffer.putLong(entry.firstRecord()).putLong(entry.offset()).putInt(entry.length()).putInt(entry.recordCount());
+        return buffer.flip();
+    }
+
+    static int varLongSize(long value) {
+        int size = 1;
+        while ((value & ~0x7FL) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    /**
+     * Growable byte array with varint and string writers.
+     */
+    static final class ByteSink {
+        byte[] bytes = new byte[64 * 1024];
+        int size;
+
+        void writeByte(int value) {
+            if (size == bytes.length) {
+                bytes = Arrays.copyOf(bytes, size * 2);
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        void writeVarLong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                writeByte((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            writeByte((int) value);
+        }
+
+        void writeZigZag(long value) {
+            writeVarLong((value << 1) ^ (value >> 63));
+        }
+
+        void writeBytes(byte[] data, int offset, int length) {
+            if (size + length > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + length));
+            }
+            System.arraycopy(data, offset, bytes, size, length);
+            size += length;
+        }
+
+        void writeString(String value) {
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(utf8.length);
+            writeBytes(utf8, 0, utf8.length);
+        }
+
+        void reset() {
+            size = 0;
+        }
+    }
+
+    /**
+     * Cursor over a byte array with varint and string readers.
+     */
+    static final class ByteReader {
+        final byte[] bytes;
+        int position;
+        final int limit;
+
+        ByteReader(byte[] bytes, int position, int limit) {
+            this.bytes = bytes;
+            this.position = position;
+            this.limit = limit;
+        }
+
+        long readVarLong() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                if (position >= limit) {
+                    throw new IOException("Truncated varint");
+                }
+                byte b = bytes[position++];
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Malformed varint");
+        }
+
+        long readZigZag() throws IOException {
+            long value = readVarLong();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        String readString() throws IOException {
+            int length = (int) readVarLong();
+            if (length < 0 || position + length > limit) {
+                throw new IOException("Truncated string");
+            }
+            String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+    }
+}
@@ -2,10 +2,17 @@ package utils;
 
 import model.FileMetadata;
 import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Utility class to serialize and deserialize file metadata.
+ * Files are written in the binary format of MetadataWriter (see MetadataFormat);
+ * files written by the old ObjectOutputStream version can still be read.
  */
 public class MetadataManager {
     /**
@@ -14,22 +21,77 @@ public class MetadataManager {
      * @param filePath Output file path
      */
     public static void serializeMetadata(List<FileMetadata> metadataList, String filePath) {
-        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(filePath))) {
-            oos.writeObject(metadataList);
+        try (MetadataWriter writer = MetadataWriter.create(Path.of(filePath))) {
+            for (FileMetadata metadata : metadataList) {
+                writer.write(metadata);
+            }
             System.out.println("Metadata serialized successfully.");
         } catch (IOException e) {
             System.err.println("Error serializing metadata: " + e.getMessage());
         }
     }
 
+    /**
+     * Adds FileMetadata objects after the ones already in a metadata file (creates it if missing).
+     * @param metadataList List of FileMetadata
+     * @param filePath Metadata file path
+     */
+    public static void appendMetadata(List<FileMetadata> metadataList, String filePath) {
+        try (MetadataWriter writer = MetadataWriter.append(Path.of(filePath))) {
+            for (FileMetadata metadata : metadataList) {
+                writer.write(metadata);
+            }
+            System.out.println("Metadata appended, " + writer.getRecordCount() + " records in file.");
+        } catch (IOException e) {
+            System.err.println("Error appending metadata: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Passes every FileMetadata in a metadata file to the consumer without loading the whole list.
+     * @param filePath Input file path
+     * @param consumer Consumer for each record
+     * @return Number of records read, or -1 on error
+     */
+    public static long streamMetadata(String filePath, Consumer<FileMetadata> consumer) {
+        try (MetadataReader reader = MetadataReader.open(Path.of(filePath))) {
+            reader.forEach(consumer);
+            return reader.count();
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("Error reading metadata: " + e.getMessage());
+            return -1;
+        }
+    }
+
     /**
      * Deserializes a list of FileMetadata objects from a file.
      * @param filePath Input file path
      * @return List of FileMetadata
      */
     public static List<FileMetadata> deserializeMetadata(String filePath) {
+        if (!isBinaryFormat(filePath)) {
+            return deserializeLegacy(filePath);
+        }
+        List<FileMetadata> metadataList = new ArrayList<>();
+        return streamMetadata(filePath, metadataList::add) < 0 ? null : metadataList;
+    }
+
+    private static boolean isBinaryFormat(String filePath) {
+        try (InputStream in = Files.newInputStream(Path.of(filePath))) {
+            return Arrays.equals(in.readNBytes(MetadataFormat.MAGIC.length), MetadataFormat.MAGIC);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    // Files written with ObjectOutputStream; only the list and FileMetadata classes may be deserialized
+    private static List<FileMetadata> deserializeLegacy(String filePath) {
         try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(filePath))) {
-            return (List<FileMetadata>) ois.readObject();
+            ois.setObjectInputFilter(ObjectInputFilter.Config.createFilter(
+                    "java.lang.Object;java.util.ArrayList;java.util.Arrays$ArrayList;java.util.ImmutableCollections$*;model.FileMetadata;maxdepth=5;!*"));
+            @SuppressWarnings("unchecked")
+            List<FileMetadata> metadataList = (List<FileMetadata>) ois.readObject();
+            return metadataList;
         } catch (IOException | ClassNotFoundException e) {
             System.err.println("Error deserializing metadata: " + e.getMessage());
             return null;
@@ -0,0 +1,196 @@
+package utils;
+
+import model.FileMetadata;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+/**
+ * Streaming reader for the binary metadata format (see MetadataFormat).
+ * Iterates records one block at a time; get()/seek() jump to any record through the block index.
+ * Not thread-safe.
+ */
+public class MetadataReader implements Closeable, Iterator<FileMetadata> {
+    private final FileChannel data;
+    private final List<MetadataFormat.BlockEntry> blocks;
+    private final long recordCount;
+    private final int flags;
+
+    // block currently decoded and the record the cursor is at
+    private int blockNumber = -1;
+    private String[] dictionary;
+    private MetadataFormat.ByteReader reader;
+    private long cursor;
+    private long blockCursor;
+
+    private MetadataReader(FileChannel data, List<MetadataFormat.BlockEntry> blocks, int flags) {
+        this.data = data;
+        this.flags = flags;
+        this.blocks = blocks;
+        MetadataFormat.BlockEntry last = blocks.isEmpty() ? null : blocks.get(blocks.size() - 1);
+        this.recordCount = last == null ? 0 : last.firstRecord() + last.recordCount();
+    }
+
+    /**
+     * Opens a metadata file; the block list comes from the index, with blocks it does not cover found by scanning.
+     * @param file Metadata file path
+     * @return Reader positioned at the first record
+     * @throws IOException If the file is not a metadata file or cannot be read
+     */
+    public static MetadataReader open(Path file) throws IOException {
+        FileChannel data = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            int flags = MetadataFormat.checkHeader(data, file);
+            return new MetadataReader(data, MetadataFormat.loadBlocks(data, file), flags);
+        } catch (IOException e) {
+            data.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return Number of records in the file
+     */
+    public long count() {
+        return recordCount;
+    }
+
+    /**
+     * @return Whether the records are in filename order (written by SnapshotSorter)
+     */
+    public boolean isSortedByName() {
+        return (flags & MetadataFormat.FLAG_SORTED_BY_NAME) != 0;
+    }
+
+    /**
+     * Moves the cursor so next() returns the given record.
+     * @param recordNumber Zero-based record number
+     */
+    public void seek(long recordNumber) {
+        if (recordNumber < 0 || recordNumber > recordCount) {
+            throw new IndexOutOfBoundsException("Record " + recordNumber + " of " + recordCount);
+        }
+        cursor = recordNumber;
+    }
+
+    /**
+     * Reads one record by number; also moves the cursor after it.
+     * @param recordNumber Zero-based record number
+     * @return The record
+     */
+    public FileMetadata get(long recordNumber) {
+        if (recordNumber < 0 || recordNumber >= recordCount) {
+            throw new IndexOutOfBoundsException("Record " + recordNumber + " of " + recordCount);
+        }
+        seek(recordNumber);
+        return next();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return cursor < recordCount;
+    }
+
+    @Override
+    public FileMetadata next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        try {
+            position(cursor);
+            FileMetadata metadata = readRecord();
+            cursor++;
+            blockCursor++;
+            return metadata;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Passes every remaining record to the consumer.
+     * @param consumer Consumer for each record
+     */
+    public void forEach(Consumer<FileMetadata> consumer) {
+        while (hasNext()) {
+            consumer.accept(next());
+        }
+    }
+
+    // Makes reader point at record number target, decoding its block or skipping forward inside the current one
+    private void position(long target) throws IOException {
+        if (blockNumber >= 0) {
+            MetadataFormat.BlockEntry block = blocks.get(blockNumber);
+            if (target >= block.firstRecord() + blockCursor && target < block.firstRecord() + block.recordCount()) {
+                skip(target - block.firstRecord() - blockCursor);
+                return;
+            }
+        }
+        int low = 0;
+        int high = blocks.size() - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (blocks.get(mid).firstRecord() <= target) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        decodeBlock(low);
+        skip(target - blocks.get(low).firstRecord());
+    }
+
+    private void decodeBlock(int number) throws IOException {
+        MetadataFormat.BlockEntry block = blocks.get(number);
+        ByteBuffer buffer = ByteBuffer.allocate(block.length());
+        while (buffer.hasRemaining()) {
+            if (data.read(buffer, block.offset() + buffer.position()) < 0) {
+                throw new IOException("Metadata file ends inside block " + number);
+            }
+        }
+        reader = new MetadataFormat.ByteReader(buffer.array(), 0, block.length());
+        reader.readVarLong(); // body length
+        reader.readVarLong(); // record count, already in the index
+        int dictCount = (int) reader.readVarLong();
+        dictionary = new String[dictCount];
+        for (int i = 0; i < dictCount; i++) {
+            dictionary[i] = reader.readString();
+        }
+        blockNumber = number;
+        blockCursor = 0;
+    }
+
+    private void skip(long count) throws IOException {
+        for (long i = 0; i < count; i++) {
+            int length = (int) reader.readVarLong();
+            reader.position += length;
+            blockCursor++;
+        }
+    }
+
+    private FileMetadata readRecord() throws IOException {
+        int length = (int) reader.readVarLong();
+        int end = reader.position + length;
+        int dirRef = (int) reader.readVarLong();
+        String name = reader.readString();
+        long size = reader.readVarLong();
+        long lastModified = reader.readZigZag();
+        // fields written by later versions are skipped
+        reader.position = end;
+        return new FileMetadata(dirRef == 0 ? name : dictionary[dirRef - 1] + name, size, lastModified);
+    }
+
+    @Override
+    public void close() throws IOException {
+        data.close();
+    }
+}
@@ -0,0 +1,199 @@
+package utils;
+
+import model.FileMetadata;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streaming writer for the binary metadata format (see MetadataFormat).
+ * Records are buffered one block (4096 records) at a time, so memory does not grow with the number written.
+ * Not thread-safe.
+ */
+public class MetadataWriter implements Closeable {
+    private final FileChannel data;
+    private final FileChannel index;
+    private long offset;
+    private long nextRecord;
+    private long blockFirstRecord;
+
+    private final Map<String, Integer> dictionary = new HashMap<>();
+    private final List<String> dictionaryOrder = new ArrayList<>();
+    private final MetadataFormat.ByteSink records = new MetadataFormat.ByteSink();
+    private final MetadataFormat.ByteSink record = new MetadataFormat.ByteSink();
+    private final MetadataFormat.ByteSink body = new MetadataFormat.ByteSink();
+    private int blockRecords;
+
+    private MetadataWriter(FileChannel data, FileChannel index, long offset, long nextRecord) {
+        this.data = data;
+        this.index = index;
+        this.offset = offset;
+        this.nextRecord = nextRecord;
+        this.blockFirstRecord = nextRecord;
+    }
+
+    /**
+     * Creates (or overwrites) a metadata file and its index.
+     * @param file Output file path
+     * @return Writer positioned at the first record
+     * @throws IOException If the file cannot be created
+     */
+    public static MetadataWriter create(Path file) throws IOException {
+        return create(file, 0);
+    }
+
+    /**
+     * Creates (or overwrites) a metadata file and its index with the given header flags.
+     * @param file Output file path
+     * @param flags MetadataFormat.FLAG_* bits; the caller guarantees what they promise
+     * @return Writer positioned at the first record
+     * @throws IOException If the file cannot be created
+     */
+    static MetadataWriter create(Path file, int flags) throws IOException {
+        FileChannel data = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        FileChannel index = FileChannel.open(MetadataFormat.indexPath(file), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        ByteBuffer header = ByteBuffer.allocate(MetadataFormat.HEADER_SIZE);
+        header.put(MetadataFormat.MAGIC).put((byte) MetadataFormat.VERSION).put((byte) flags).flip();
+        data.write(header, 0);
+        // relative write, so the entries flushBlock() appends land after the magic
+        index.write(ByteBuffer.wrap(MetadataFormat.INDEX_MAGIC));
+        return new MetadataWriter(data, index, MetadataFormat.HEADER_SIZE, 0);
+    }
+
+    /**
+     * Opens a metadata file to add records after the existing ones (creates it if missing).
+     * A block torn by an interrupted write is cut off and the index is rewritten to match the file.
+     * @param file Metadata file path
+     * @return Writer positioned after the last record
+     * @throws IOException If the file is not a metadata file or cannot be opened
+     */
+    public static MetadataWriter append(Path file) throws IOException {
+        if (!Files.exists(file) || Files.size(file) == 0) {
+            return create(file);
+        }
+        FileChannel data = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            int flags = MetadataFormat.checkHeader(data, file);
+            if ((flags & MetadataFormat.FLAG_SORTED_BY_NAME) != 0) {
+                // appended records may come in any order
+                data.write(ByteBuffer.wrap(new byte[]{(byte) (flags & ~MetadataFormat.FLAG_SORTED_BY_NAME)}), MetadataFormat.FLAGS_OFFSET);
+            }
+            List<MetadataFormat.BlockEntry> blocks = MetadataFormat.loadBlocks(data, file);
+            long end = blocks.isEmpty() ? MetadataFormat.HEADER_SIZE : blocks.get(blocks.size() - 1).end();
+            long records = blocks.isEmpty() ? 0 : blocks.get(blocks.size() - 1).firstRecord() + blocks.get(blocks.size() - 1).recordCount();
+            data.truncate(end);
+            FileChannel index = FileChannel.open(MetadataFormat.indexPath(file), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            long indexPosition = index.write(ByteBuffer.wrap(MetadataFormat.INDEX_MAGIC), 0);
+            for (MetadataFormat.BlockEntry block : blocks) {
+                indexPosition += index.write(MetadataFormat.encodeIndexEntry(block), indexPosition);
+            }
+            index.position(indexPosition);
+            return new MetadataWriter(data, index, end, records);
+        } catch (IOException e) {
+            data.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Adds one record.
+     * @param metadata File metadata
+     * @throws IOException If writing a full block fails
+     */
+    public void write(FileMetadata metadata) throws IOException {
+        String filename = metadata.getFilename();
+        int split = Math.max(filename.lastIndexOf('/'), filename.lastIndexOf('\\')) + 1;
+        int dirRef = 0;
+        if (split > 0) {
+            String dir = filename.substring(0, split);
+            Integer ref = dictionary.get(dir);
+            if (ref == null) {
+                dictionaryOrder.add(dir);
+                ref = dictionaryOrder.size();
+                dictionary.put(dir, ref);
+            }
+            dirRef = ref;
+        }
+        record.reset();
+        record.writeVarLong(dirRef);
+        record.writeString(filename.substring(split));
+        record.writeVarLong(metadata.getSize());
+        record.writeZigZag(metadata.getLastModified());
+        records.writeVarLong(record.size);
+        records.writeBytes(record.bytes, 0, record.size);
+        blockRecords++;
+        nextRecord++;
+        if (blockRecords == MetadataFormat.RECORDS_PER_BLOCK) {
+            flushBlock();
+        }
+    }
+
+    /**
+     * @return Number of records in the file, including the ones written before an append
+     */
+    public long getRecordCount() {
+        return nextRecord;
+    }
+
+    private void flushBlock() throws IOException {
+        if (blockRecords == 0) {
+            return;
+        }
+        body.reset();
+        body.writeVarLong(blockRecords);
+        body.writeVarLong(dictionaryOrder.size());
+        for (String dir : dictionaryOrder) {
+            body.writeString(dir);
+        }
+        body.writeBytes(records.bytes, 0, records.size);
+
+        MetadataFormat.ByteSink prefix = new MetadataFormat.ByteSink();
+        prefix.writeVarLong(body.size);
+        ByteBuffer prefixBuffer = ByteBuffer.wrap(prefix.bytes, 0, prefix.size);
+        ByteBuffer bodyBuffer = ByteBuffer.wrap(body.bytes, 0, body.size);
+        long position = offset;
+        while (prefixBuffer.hasRemaining()) {
+            position += data.write(prefixBuffer, position);
+        }
+        while (bodyBuffer.hasRemaining()) {
+            position += data.write(bodyBuffer, position);
+        }
+        // index entry only after the block is fully written, a crash in between leaves a block the next open rescans
+        MetadataFormat.BlockEntry entry = new MetadataFormat.BlockEntry(blockFirstRecord, offset, (int) (position - offset), blockRecords);
+        ByteBuffer indexEntry = MetadataFormat.encodeIndexEntry(entry);
+        while (indexEntry.hasRemaining()) {
+            index.write(indexEntry);
+        }
+        offset = position;
+        blockFirstRecord = nextRecord;
+        blockRecords = 0;
+        records.reset();
+        dictionary.clear();
+        dictionaryOrder.clear();
+    }
+
+    /**
+     * Writes the last partial block and closes the file.
+     * @throws IOException If writing fails
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flushBlock();
+        } finally {
+            data.close();
+            index.close();
+        }
+    }
+}
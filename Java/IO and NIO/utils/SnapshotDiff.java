@@ -0,0 +1,193 @@
+package utils;
+
+import model.FileMetadata;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Finds what changed between two metadata snapshots of the same tree.
+ * Both snapshots are read in filename order (unsorted ones go through SnapshotSorter first) and merged in one
+ * linear pass, holding only the current record of each side. For parallelism the name space is cut into
+ * contiguous ranges (so each range covers whole directories or runs of them); every range is merged on its own
+ * thread, starting at record positions found by binary search through the block index.
+ */
+public class SnapshotDiff {
+    private static final long MIN_RECORDS_PER_PARTITION = 100_000;
+
+    /**
+     * Receives the changes. With parallelism &gt; 1 it is called from several threads at once,
+     * in filename order within a partition only.
+     */
+    public interface Listener {
+        void added(FileMetadata current);
+
+        void removed(FileMetadata previous);
+
+        void modified(FileMetadata previous, FileMetadata current);
+    }
+
+    /**
+     * Change counts of one diff.
+     */
+    public record Summary(long added, long removed, long modified, long unchanged, long millis) {
+        @Override
+        public String toString() {
+            return String.format("%d added, %d removed, %d modified, %d unchanged (%d ms)", added, removed, modified, unchanged, millis);
+        }
+    }
+
+    /**
+     * Compares two snapshots; a file counts as modified when its size or last-modified time differs.
+     * @param previousPath Older snapshot
+     * @param currentPath Newer snapshot
+     * @param parallelism Partitions merged at once
+     * @param listener Receives added, removed and modified files
+     * @return Counts, or null on error
+     */
+    public static Summary diff(String previousPath, String currentPath, int parallelism, Listener listener) {
+        long start = System.currentTimeMillis();
+        List<Path> temporary = new ArrayList<>();
+        try {
+            Path previous = sorted(Path.of(previousPath), temporary);
+            Path current = sorted(Path.of(currentPath), temporary);
+            List<String> boundaries = boundaries(previous, current, parallelism);
+            AtomicLong[] counts = {new AtomicLong(), new AtomicLong(), new AtomicLong(), new AtomicLong()};
+            if (boundaries.size() == 2) {
+                mergeRange(previous, current, null, null, listener, counts);
+            } else {
+                ExecutorService pool = Executors.newFixedThreadPool(parallelism);
+                try {
+                    List<Future<?>> partitions = new ArrayList<>();
+                    for (int i = 0; i + 1 < boundaries.size(); i++) {
+                        String from = boundaries.get(i);
+                        String to = boundaries.get(i + 1);
+                        partitions.add(pool.submit(() -> {
+                            mergeRange(previous, current, from, to, listener, counts);
+                            return null;
+                        }));
+                    }
+                    for (Future<?> partition : partitions) {
+                        partition.get();
+                    }
+                } finally {
+                    pool.shutdownNow();
+                }
+            }
+            return new Summary(counts[0].get(), counts[1].get(), counts[2].get(), counts[3].get(),
+                    System.currentTimeMillis() - start);
+        } catch (IOException | UncheckedIOException | ExecutionException e) {
+            System.err.println("Error comparing snapshots: " + e.getMessage());
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } finally {
+            for (Path file : temporary) {
+                try {
+                    Files.deleteIfExists(file);
+                    Files.deleteIfExists(MetadataFormat.indexPath(file));
+                } catch (IOException e) {
+                    System.err.println("Error deleting " + file + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private static Path sorted(Path snapshot, List<Path> temporary) throws IOException {
+        try (MetadataReader reader = MetadataReader.open(snapshot)) {
+            if (reader.isSortedByName()) {
+                return snapshot;
+            }
+        }
+        Path sortedCopy = Files.createTempFile(snapshot.toAbsolutePath().getParent(), "sorted", ".tmp");
+        temporary.add(sortedCopy);
+        SnapshotSorter.sort(snapshot, sortedCopy);
+        return sortedCopy;
+    }
+
+    // null, k1, ..., null: partition i covers names in [boundary i, boundary i+1), null meaning unbounded
+    private static List<String> boundaries(Path previous, Path current, int parallelism) throws IOException {
+        List<String> boundaries = new ArrayList<>();
+        boundaries.add(null);
+        try (MetadataReader reader = MetadataReader.open(current)) {
+            long count = reader.count();
+            int partitions = (int) Math.min(parallelism, count / MIN_RECORDS_PER_PARTITION);
+            TreeSet<String> keys = new TreeSet<>();
+            for (int i = 1; i < partitions; i++) {
+                keys.add(directoryStart(reader.get(count * i / partitions).getFilename()));
+            }
+            keys.remove("");
+            boundaries.addAll(keys);
+        }
+        boundaries.add(null);
+        return boundaries;
+    }
+
+    // Cut before the record's directory, so a directory is not split unless it is the whole range
+    private static String directoryStart(String filename) {
+        int slash = filename.lastIndexOf('/');
+        return slash < 0 ? filename : filename.substring(0, slash + 1);
+    }
+
+    private static void mergeRange(Path previousPath, Path currentPath, String from, String to, Listener listener,
+                                   AtomicLong[] counts) throws IOException {
+        try (MetadataReader previous = MetadataReader.open(previousPath);
+             MetadataReader current = MetadataReader.open(currentPath)) {
+            long previousEnd = to == null ? previous.count() : lowerBound(previous, to);
+            long currentEnd = to == null ? current.count() : lowerBound(current, to);
+            long p = from == null ? 0 : lowerBound(previous, from);
+            long c = from == null ? 0 : lowerBound(current, from);
+            previous.seek(p);
+            current.seek(c);
+            FileMetadata before = p < previousEnd ? previous.next() : null;
+            FileMetadata after = c < currentEnd ? current.next() : null;
+            while (before != null || after != null) {
+                int order = before == null ? 1 : after == null ? -1 : before.getFilename().compareTo(after.getFilename());
+                if (order < 0) {
+                    listener.removed(before);
+                    counts[1].incrementAndGet();
+                } else if (order > 0) {
+                    listener.added(after);
+                    counts[0].incrementAndGet();
+                } else if (before.getSize() != after.getSize() || before.getLastModified() != after.getLastModified()) {
+                    listener.modified(before, after);
+                    counts[2].incrementAndGet();
+                } else {
+                    counts[3].incrementAndGet();
+                }
+                if (order <= 0) {
+                    before = ++p < previousEnd ? previous.next() : null;
+                }
+                if (order >= 0) {
+                    after = ++c < currentEnd ? current.next() : null;
+                }
+            }
+        }
+    }
+
+    // First record whose filename is >= key
+    private static long lowerBound(MetadataReader reader, String key) {
+        long low = 0;
+        long high = reader.count();
+        while (low < high) {
+            long mid = (low + high) >>> 1;
+            if (reader.get(mid).getFilename().compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
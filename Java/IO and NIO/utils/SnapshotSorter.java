@@ -0,0 +1,90 @@
+package utils;
+
+import model.FileMetadata;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * External merge sort of a metadata snapshot by filename, for SnapshotDiff.
+ * Sorts runs of RUN_SIZE records in memory, writes each to a temporary snapshot, then merges the runs,
+ * so memory is bounded by one run whatever the snapshot size.
+ */
+public class SnapshotSorter {
+    private static final int RUN_SIZE = 500_000;
+    private static final Comparator<FileMetadata> BY_NAME = Comparator.comparing(FileMetadata::getFilename);
+
+    /**
+     * Writes the records of input to output in filename order and marks output as sorted.
+     * @param input Snapshot to sort
+     * @param output Sorted snapshot (overwritten)
+     * @throws IOException If reading or writing fails
+     */
+    public static void sort(Path input, Path output) throws IOException {
+        List<Path> runs = new ArrayList<>();
+        try (MetadataReader reader = MetadataReader.open(input)) {
+            List<FileMetadata> run = new ArrayList<>();
+            while (reader.hasNext()) {
+                run.add(reader.next());
+                if (run.size() == RUN_SIZE || !reader.hasNext()) {
+                    run.sort(BY_NAME);
+                    Path runFile = reader.hasNext() || !runs.isEmpty()
+                            ? Files.createTempFile(output.toAbsolutePath().getParent(), "run", ".tmp") : output;
+                    writeAll(run, runFile);
+                    runs.add(runFile);
+                    run.clear();
+                }
+            }
+        }
+        if (runs.isEmpty()) {
+            writeAll(List.of(), output);
+        } else if (runs.size() > 1) {
+            merge(runs, output);
+        }
+    }
+
+    private static void writeAll(List<FileMetadata> records, Path file) throws IOException {
+        try (MetadataWriter writer = MetadataWriter.create(file, MetadataFormat.FLAG_SORTED_BY_NAME)) {
+            for (FileMetadata metadata : records) {
+                writer.write(metadata);
+            }
+        }
+    }
+
+    private record Head(FileMetadata metadata, MetadataReader reader) {
+    }
+
+    private static void merge(List<Path> runs, Path output) throws IOException {
+        List<MetadataReader> readers = new ArrayList<>();
+        PriorityQueue<Head> heads = new PriorityQueue<>(Comparator.comparing(Head::metadata, BY_NAME));
+        try (MetadataWriter writer = MetadataWriter.create(output, MetadataFormat.FLAG_SORTED_BY_NAME)) {
+            for (Path run : runs) {
+                MetadataReader reader = MetadataReader.open(run);
+                readers.add(reader);
+                if (reader.hasNext()) {
+                    heads.add(new Head(reader.next(), reader));
+                }
+            }
+            while (!heads.isEmpty()) {
+                Head head = heads.poll();
+                writer.write(head.metadata());
+                if (head.reader().hasNext()) {
+                    heads.add(new Head(head.reader().next(), head.reader()));
+                }
+            }
+        } finally {
+            for (MetadataReader reader : readers) {
+                reader.close();
+            }
+            for (Path run : runs) {
+                Files.deleteIfExists(run);
+                Files.deleteIfExists(MetadataFormat.indexPath(run));
+            }
+        }
+    }
+}
@@ -1,11 +1,21 @@
 package com.example.minor_project_01.config;
 
 import com.example.minor_project_01.dto.ResponseDTO;
+import com.example.minor_project_01.exception.CompanyNotFound;
+import com.example.minor_project_01.exception.IndexNotReadyException;
+import com.example.minor_project_01.exception.LeaseLostException;
 import com.example.minor_project_01.exception.NotFoundException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
 
 @RestControllerAdvice(annotations = RestController.class)
 public class GlobalExceptionHandler {
@@ -13,9 +23,49 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(NotFoundException.class)
     public ResponseEntity<ResponseDTO> handleNotFoundException(NotFoundException exception){
+        return ResponseEntity.badRequest().body(buildResponse("989", exception.getMessage()));
+    }
+
+    @ExceptionHandler(CompanyNotFound.class)
+    public ResponseEntity<ResponseDTO> handleCompanyNotFound(CompanyNotFound exception){
+        return ResponseEntity.badRequest().body(buildResponse("989", exception.getMessage()));
+    }
+
+    // Remaining Optional.get() lookups (company, category), same answer as NotFoundException.
+    @ExceptionHandler(NoSuchElementException.class)
+    public ResponseEntity<ResponseDTO> handleNoSuchElementException(NoSuchElementException exception){
+        return ResponseEntity.badRequest().body(buildResponse("989", "Requested entity does not exist"));
+    }
+
+    @ExceptionHandler(MethodArgumentNotValidException.class)
+    public ResponseEntity<ResponseDTO> handleValidationException(MethodArgumentNotValidException exception){
+        String message = exception.getBindingResult().getFieldErrors().stream()
+                .map(error -> error.getField() + " " + error.getDefaultMessage())
+                .collect(Collectors.joining(", "));
+        return ResponseEntity.badRequest().body(buildResponse("990", message));
+    }
+
+    @ExceptionHandler(HttpClientErrorException.class)
+    public ResponseEntity<ResponseDTO> handleHttpClientErrorException(HttpClientErrorException exception){
+        return ResponseEntity.status(exception.getStatusCode()).body(buildResponse("991", exception.getStatusText()));
+    }
+
+    @ExceptionHandler(LeaseLostException.class)
+    public ResponseEntity<ResponseDTO> handleLeaseLostException(LeaseLostException exception){
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(buildResponse("992", exception.getMessage()));
+    }
+
+    @ExceptionHandler(IndexNotReadyException.class)
+    public ResponseEntity<ResponseDTO> handleIndexNotReadyException(IndexNotReadyException exception){
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body(buildResponse("993", exception.getMessage()));
+    }
+
+    private static ResponseDTO buildResponse(String statusCode, String msg){
         ResponseDTO responseDTO = new ResponseDTO();
-        responseDTO.setMsg(exception.getMessage());
-        responseDTO.setStatusCode("989");
-        return ResponseEntity.badRequest().body(responseDTO);
+        responseDTO.setMsg(msg);
+        responseDTO.setStatusCode(statusCode);
+        return responseDTO;
     }
 }
@@ -0,0 +1,31 @@
+package com.example.minor_project_01.config;
+
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.TriggerContext;
+
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+
+/*
+Adds a random delay of up to jitterMillis to another trigger, so jobs with the same
+schedule on several instances do not all hit the database at the same moment.
+ */
+public class JitteredTrigger implements Trigger {
+
+    private final Trigger delegate;
+    private final long jitterMillis;
+
+    public JitteredTrigger(Trigger delegate, long jitterMillis) {
+        this.delegate = delegate;
+        this.jitterMillis = jitterMillis;
+    }
+
+    @Override
+    public Instant nextExecution(TriggerContext triggerContext) {
+        Instant next = delegate.nextExecution(triggerContext);
+        if(next == null || jitterMillis <= 0){
+            return next;
+        }
+        return next.plusMillis(ThreadLocalRandom.current().nextLong(jitterMillis + 1));
+    }
+}
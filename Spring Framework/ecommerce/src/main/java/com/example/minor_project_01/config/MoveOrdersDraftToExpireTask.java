@@ -1,29 +1,75 @@
 package com.example.minor_project_01.config;
 
+import com.example.minor_project_01.entity.OrderStatus;
 import com.example.minor_project_01.repo.OrderRepo;
+import com.example.minor_project_01.service.DraftOrderCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 @Component
-public class MoveOrdersDraftToExpireTask {
+public class MoveOrdersDraftToExpireTask implements ScheduledJob {
 
     private static Logger LOGGER = LoggerFactory.getLogger(MoveOrdersDraftToExpireTask.class);
 
     @Autowired
     private OrderRepo orderRepo;
 
-    @Scheduled(fixedDelay = 3000)
+    @Autowired
+    private DraftOrderCache draftOrderCache;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.orders.draft-expiry-days:5}")
+    private int draftExpiryDays;
+
+    @Value("${app.orders.expiry-batch-size:500}")
+    private int batchSize;
+
+    @Override
+    public String getName() {
+        return "expire-draft-orders";
+    }
+
+    @Override
+    public void run() {
+        markOrdersExpire();
+    }
+
     public void markOrdersExpire(){
         LOGGER.info("Starting markOrdersExpire");
         /*
         Fetch ORDERS with status as DRAFT and lastUpdated Time was 5 days ago.
-        Mark these order EXPIRE
-
-
+        Mark these order EXPIRE and drop the users' cached carts.
          */
-        LOGGER.info("Exiting markOrdersExpire");
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(draftExpiryDays);
+        int expired;
+        int total = 0;
+        do {
+            expired = transactionTemplate.execute(status -> {
+                List<Object[]> rows = orderRepo.findIdsAndUserIdsByStatusBefore(OrderStatus.DRAFT, cutoff, PageRequest.of(0, batchSize));
+                if(rows.isEmpty()){
+                    return 0;
+                }
+                List<Long> orderIds = new ArrayList<>(rows.size());
+                for(Object[] row : rows){
+                    orderIds.add((Long) row[0]);
+                    draftOrderCache.evictAfterCommit((Long) row[1]);
+                }
+                orderRepo.changeStatus(orderIds, OrderStatus.DRAFT, OrderStatus.EXPIRED, LocalDateTime.now());
+                return rows.size();
+            });
+            total += expired;
+        } while (expired == batchSize);
+        LOGGER.info("Exiting markOrdersExpire, expired {} orders", total);
     }
 }
@@ -0,0 +1,117 @@
+package com.example.minor_project_01.config;
+
+import com.example.minor_project_01.service.JobLeaseService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/*
+Moves soft deleted products and users to the archive tables.
+- Runs only inside the off-peak window given by its cron
+  (app.scheduler.jobs.purge-soft-deleted.cron, every 10 minutes between 01:00 and 04:59).
+- Works in batches of batchSize ids, one transaction per batch, at most maxBatchesPerRun batches per run.
+- Rows still referenced (products in an OrderItem, users with an order) are skipped;
+  they stay soft deleted and hidden from reads.
+ */
+@Component
+public class PurgeSoftDeletedTask implements ScheduledJob {
+
+    private static Logger LOGGER = LoggerFactory.getLogger(PurgeSoftDeletedTask.class);
+
+    private static final String SELECT_PRODUCTS = """
+            select p.id from product p
+            where p.deleted = true and p.deleted_at < :cutoff
+              and not exists (select 1 from order_item oi where oi.product_id = p.id)
+            order by p.id limit :limit""";
+
+    private static final String ARCHIVE_PRODUCTS = """
+            insert into product_archive (id, name, description, price, stock, active, image_url,
+                                         company_id, category_id, created_at, updated_at, deleted_at, archived_at)
+            select id, name, description, price, stock, active, image_url,
+                   company_id, category_id, created_at, updated_at, deleted_at, :now
+            from product where id in (:ids)""";
+
+    private static final String SELECT_USERS = """
+            select u.id from user u
+            where u.deleted = true and u.deleted_at < :cutoff
+              and not exists (select 1 from customer_order o where o.user_id = u.id)
+            order by u.id limit :limit""";
+
+    private static final String ARCHIVE_USERS = """
+            insert into user_archive (id, name, email, role, company_id, created_at, updated_at, deleted_at, archived_at)
+            select id, name, email, role, company_id, created_at, updated_at, deleted_at, :now
+            from user where id in (:ids)""";
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JobLeaseService jobLeaseService;
+
+    @Value("${app.purge.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.purge.max-batches-per-run:20}")
+    private int maxBatchesPerRun;
+
+    @Value("${app.purge.retention-days:7}")
+    private int retentionDays;
+
+    @Override
+    public String getName() {
+        return "purge-soft-deleted";
+    }
+
+    @Override
+    public void run() {
+        purge();
+    }
+
+    public void purge(){
+        LOGGER.info("Starting purge of soft deleted rows");
+        int products = purgeTable(SELECT_PRODUCTS, ARCHIVE_PRODUCTS, "delete from product where id in (:ids)");
+        int users = purgeTable(SELECT_USERS, ARCHIVE_USERS, "delete from user where id in (:ids)");
+        LOGGER.info("Exiting purge, archived {} products and {} users", products, users);
+    }
+
+    private int purgeTable(String selectSql, String archiveSql, String deleteSql){
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minusDays(retentionDays));
+        JobLeaseService.Lease lease = ScheduledJobRunner.currentLease();
+        int total = 0;
+        for(int batch = 0; batch < maxBatchesPerRun; batch++){
+            Integer moved = transactionTemplate.execute(status -> {
+                // Stop if another instance took over the job lease meanwhile.
+                if(lease != null){
+                    jobLeaseService.assertStillHeld(lease);
+                }
+                List<Long> ids = jdbcTemplate.queryForList(selectSql,
+                        new MapSqlParameterSource("cutoff", cutoff).addValue("limit", batchSize), Long.class);
+                if(ids.isEmpty()){
+                    return 0;
+                }
+                MapSqlParameterSource params = new MapSqlParameterSource("ids", ids)
+                        .addValue("now", Timestamp.valueOf(LocalDateTime.now()));
+                jdbcTemplate.update(archiveSql, params);
+                jdbcTemplate.update(deleteSql, params);
+                return ids.size();
+            });
+            if(moved == null || moved == 0){
+                break;
+            }
+            total += moved;
+        }
+        return total;
+    }
+}
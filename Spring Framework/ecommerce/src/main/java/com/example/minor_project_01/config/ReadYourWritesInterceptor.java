@@ -0,0 +1,38 @@
+package com.example.minor_project_01.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/*
+Binds the calling user (X-User-Id header) to the request thread so that
+ReplicaRoutingDataSource can keep that user's reads on the primary after a write.
+ */
+@Component
+public class ReadYourWritesInterceptor implements HandlerInterceptor {
+
+    public static final String USER_ID_HEADER = "X-User-Id";
+
+    @Autowired
+    private ReadYourWritesTracker readYourWritesTracker;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String userId = request.getHeader(USER_ID_HEADER);
+        if(userId != null && !userId.isBlank()){
+            try {
+                readYourWritesTracker.bindUser(Long.valueOf(userId.trim()));
+            } catch (NumberFormatException e) {
+                // Not a user we can track, reads go through normal routing.
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        readYourWritesTracker.clear();
+    }
+}
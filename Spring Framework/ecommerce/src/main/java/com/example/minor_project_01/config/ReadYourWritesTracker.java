@@ -0,0 +1,64 @@
+package com.example.minor_project_01.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+Remembers which users wrote recently so their reads stay on the primary
+until the replica has had time to catch up (read-your-writes).
+The user of the current request is bound by ReadYourWritesInterceptor.
+ */
+@Component
+public class ReadYourWritesTracker {
+
+    private static final int PURGE_THRESHOLD = 10_000;
+
+    private static final ThreadLocal<Long> CURRENT_USER = new ThreadLocal<>();
+
+    private final Map<Long, Long> stickyUntil = new ConcurrentHashMap<>();
+
+    private final long stickyMillis;
+
+    public ReadYourWritesTracker(@Value("${app.datasource.replica.sticky-millis:5000}") long stickyMillis) {
+        this.stickyMillis = stickyMillis;
+    }
+
+    public void bindUser(Long userId){
+        CURRENT_USER.set(userId);
+    }
+
+    public void clear(){
+        CURRENT_USER.remove();
+    }
+
+    public void markWrite(Long userId){
+        if(userId == null){
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if(stickyUntil.size() > PURGE_THRESHOLD){
+            stickyUntil.values().removeIf(until -> until < now);
+        }
+        stickyUntil.put(userId, now + stickyMillis);
+        bindUser(userId);
+    }
+
+    public boolean isCurrentUserSticky(){
+        Long userId = CURRENT_USER.get();
+        if(userId == null){
+            return false;
+        }
+        Long until = stickyUntil.get(userId);
+        if(until == null){
+            return false;
+        }
+        if(until < System.currentTimeMillis()){
+            stickyUntil.remove(userId, until);
+            return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.minor_project_01.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/*
+Periodically checks the read replica. The replica is only used when it answers
+and, if a lag query is configured, when it is no more than maxLagSeconds behind.
+Lag query must return the lag in seconds as the first column of the first row,
+e.g. SELECT TIMESTAMPDIFF(SECOND, ts, NOW()) FROM replica_heartbeat
+ */
+public class ReplicaLagMonitor {
+
+    private static Logger LOGGER = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private final DataSource replicaDataSource;
+    private final String lagQuery;
+    private final long maxLagSeconds;
+
+    // Start on the primary until the replica has been checked once.
+    private volatile boolean replicaUsable = false;
+    private volatile long lastLagSeconds = -1;
+
+    public ReplicaLagMonitor(DataSource replicaDataSource, String lagQuery, long maxLagSeconds) {
+        this.replicaDataSource = replicaDataSource;
+        this.lagQuery = lagQuery;
+        this.maxLagSeconds = maxLagSeconds;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-millis:2000}")
+    public void checkReplica(){
+        boolean usable;
+        try (Connection connection = replicaDataSource.getConnection()) {
+            if(lagQuery == null || lagQuery.isBlank()){
+                usable = connection.isValid(1);
+            }
+            else {
+                try (Statement statement = connection.createStatement();
+                     ResultSet resultSet = statement.executeQuery(lagQuery)) {
+                    if(resultSet.next()){
+                        long lag = resultSet.getLong(1);
+                        usable = !resultSet.wasNull() && lag <= maxLagSeconds;
+                        lastLagSeconds = lag;
+                    }
+                    else {
+                        usable = false;
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.warn("Replica check failed: {}", e.getMessage());
+            usable = false;
+        }
+        if(usable != replicaUsable){
+            LOGGER.info("Replica usable changed to {} (lag {}s)", usable, lastLagSeconds);
+        }
+        replicaUsable = usable;
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    public long getLastLagSeconds() {
+        return lastLagSeconds;
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.minor_project_01.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+Sends @Transactional(readOnly = true) work to the replica and everything else to the primary.
+Must be wrapped in a LazyConnectionDataSourceProxy, otherwise the connection is taken
+before the transaction is marked read-only and every call lands on the primary.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route {
+        PRIMARY, REPLICA
+    }
+
+    private final ReplicaLagMonitor replicaLagMonitor;
+    private final ReadYourWritesTracker readYourWritesTracker;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica,
+                                    ReplicaLagMonitor replicaLagMonitor,
+                                    ReadYourWritesTracker readYourWritesTracker) {
+        this.replicaLagMonitor = replicaLagMonitor;
+        this.readYourWritesTracker = readYourWritesTracker;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(Route.PRIMARY, primary);
+        targets.put(Route.REPLICA, replica);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return currentRoute();
+    }
+
+    public Route currentRoute(){
+        if(!TransactionSynchronizationManager.isCurrentTransactionReadOnly()){
+            return Route.PRIMARY;
+        }
+        if(readYourWritesTracker.isCurrentUserSticky()){
+            return Route.PRIMARY;
+        }
+        if(!replicaLagMonitor.isReplicaUsable()){
+            return Route.PRIMARY;
+        }
+        return Route.REPLICA;
+    }
+}
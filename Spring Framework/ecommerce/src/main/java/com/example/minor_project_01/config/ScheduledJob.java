@@ -0,0 +1,18 @@
+package com.example.minor_project_01.config;
+
+/*
+A background job run by ScheduledJobRunner. Triggers come from properties:
+app.scheduler.jobs.<name>.cron or app.scheduler.jobs.<name>.fixed-delay-millis,
+optional app.scheduler.jobs.<name>.jitter-millis and app.scheduler.jobs.<name>.enabled.
+ */
+public interface ScheduledJob {
+
+    String getName();
+
+    void run();
+
+    // true: only one instance in the cluster runs it at a time (DB lease).
+    default boolean isClusterSingleton(){
+        return true;
+    }
+}
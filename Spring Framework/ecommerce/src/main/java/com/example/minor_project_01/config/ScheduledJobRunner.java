@@ -0,0 +1,142 @@
+package com.example.minor_project_01.config;
+
+import com.example.minor_project_01.dto.JobRunStatsDto;
+import com.example.minor_project_01.service.JobLeaseService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+Wraps every ScheduledJob run:
+- skips the run if the previous one on this instance is still going (overlap prevention),
+- for cluster singletons, skips the run unless this instance gets the job lease; the lease is
+  renewed while the job runs and is available to the job through currentLease() for fencing,
+- records run count, failures, skips and durations per job.
+ */
+@Component
+public class ScheduledJobRunner {
+
+    private static Logger LOGGER = LoggerFactory.getLogger(ScheduledJobRunner.class);
+
+    @Autowired
+    private JobLeaseService jobLeaseService;
+
+    @Value("${app.scheduler.lease-millis:60000}")
+    private long leaseMillis;
+
+    private final Map<String, Stats> stats = new ConcurrentHashMap<>();
+
+    private static final ThreadLocal<JobLeaseService.Lease> CURRENT_LEASE = new ThreadLocal<>();
+
+    // Lease of the cluster-singleton job running on this thread, null otherwise.
+    public static JobLeaseService.Lease currentLease(){
+        return CURRENT_LEASE.get();
+    }
+
+    private static class Stats {
+        final AtomicBoolean running = new AtomicBoolean(false);
+        final AtomicLong runs = new AtomicLong();
+        final AtomicLong failures = new AtomicLong();
+        final AtomicLong skippedOverlap = new AtomicLong();
+        final AtomicLong skippedNoLease = new AtomicLong();
+        final AtomicLong totalDurationMillis = new AtomicLong();
+        final AtomicLong maxDurationMillis = new AtomicLong();
+        volatile long lastDurationMillis;
+        volatile LocalDateTime lastStartedAt;
+        volatile String lastError;
+        volatile String trigger;
+    }
+
+    void register(ScheduledJob job, String triggerDescription){
+        stats.computeIfAbsent(job.getName(), name -> new Stats()).trigger = triggerDescription;
+    }
+
+    public void execute(ScheduledJob job){
+        Stats jobStats = stats.computeIfAbsent(job.getName(), name -> new Stats());
+        if(!jobStats.running.compareAndSet(false, true)){
+            jobStats.skippedOverlap.incrementAndGet();
+            return;
+        }
+        JobLeaseService.Lease lease = null;
+        try {
+            if(job.isClusterSingleton()){
+                lease = jobLeaseService.tryAcquire(job.getName(), Duration.ofMillis(leaseMillis));
+                if(lease == null){
+                    jobStats.skippedNoLease.incrementAndGet();
+                    return;
+                }
+                jobLeaseService.startRenewal(lease);
+                CURRENT_LEASE.set(lease);
+            }
+            long started = System.currentTimeMillis();
+            jobStats.lastStartedAt = LocalDateTime.now();
+            try {
+                job.run();
+                jobStats.lastError = null;
+            } catch (RuntimeException e) {
+                jobStats.failures.incrementAndGet();
+                jobStats.lastError = e.getMessage();
+                LOGGER.error("Job {} failed", job.getName(), e);
+            } finally {
+                long duration = System.currentTimeMillis() - started;
+                jobStats.runs.incrementAndGet();
+                jobStats.lastDurationMillis = duration;
+                jobStats.totalDurationMillis.addAndGet(duration);
+                jobStats.maxDurationMillis.accumulateAndGet(duration, Math::max);
+            }
+        } catch (RuntimeException e) {
+            // Lease table not reachable, try again next trigger.
+            jobStats.failures.incrementAndGet();
+            jobStats.lastError = e.getMessage();
+            LOGGER.error("Could not run job {}", job.getName(), e);
+        } finally {
+            CURRENT_LEASE.remove();
+            if(lease != null){
+                releaseQuietly(lease);
+            }
+            jobStats.running.set(false);
+        }
+    }
+
+    private void releaseQuietly(JobLeaseService.Lease lease){
+        try {
+            jobLeaseService.release(lease);
+        } catch (RuntimeException e) {
+            // It expires on its own after the ttl.
+            LOGGER.warn("Could not release lease {}: {}", lease.getName(), e.getMessage());
+        }
+    }
+
+    public List<JobRunStatsDto> getStats(){
+        List<JobRunStatsDto> result = new ArrayList<>();
+        stats.forEach((name, jobStats) -> {
+            JobRunStatsDto dto = new JobRunStatsDto();
+            long runs = jobStats.runs.get();
+            dto.setName(name);
+            dto.setTrigger(jobStats.trigger);
+            dto.setRunning(jobStats.running.get());
+            dto.setRuns(runs);
+            dto.setFailures(jobStats.failures.get());
+            dto.setSkippedOverlap(jobStats.skippedOverlap.get());
+            dto.setSkippedNoLease(jobStats.skippedNoLease.get());
+            dto.setLastDurationMillis(jobStats.lastDurationMillis);
+            dto.setMaxDurationMillis(jobStats.maxDurationMillis.get());
+            dto.setAverageDurationMillis(runs == 0 ? 0 : jobStats.totalDurationMillis.get() / runs);
+            dto.setLastStartedAt(jobStats.lastStartedAt);
+            dto.setLastError(jobStats.lastError);
+            result.add(dto);
+        });
+        return result;
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.minor_project_01.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.scheduling.support.CronTrigger;
+import org.springframework.scheduling.support.PeriodicTrigger;
+
+import java.time.Duration;
+import java.util.List;
+
+/*
+Replaces the default single-threaded scheduler with a pool (app.scheduler.pool-size) and
+registers every ScheduledJob bean with the trigger from its properties. The pool is also
+used by the remaining @Scheduled methods, so one slow job no longer delays the others.
+ */
+@Configuration
+public class SchedulerConfig implements SchedulingConfigurer {
+
+    private static Logger LOGGER = LoggerFactory.getLogger(SchedulerConfig.class);
+
+    @Autowired
+    private List<ScheduledJob> jobs;
+
+    @Autowired
+    private ScheduledJobRunner scheduledJobRunner;
+
+    @Autowired
+    private Environment environment;
+
+    @Value("${app.scheduler.pool-size:4}")
+    private int poolSize;
+
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(){
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(poolSize);
+        scheduler.setThreadNamePrefix("job-");
+        scheduler.setWaitForTasksToCompleteOnShutdown(true);
+        scheduler.setAwaitTerminationSeconds(30);
+        return scheduler;
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
+        taskRegistrar.setTaskScheduler(taskScheduler());
+        for(ScheduledJob job : jobs){
+            String prefix = "app.scheduler.jobs." + job.getName() + ".";
+            if(!environment.getProperty(prefix + "enabled", Boolean.class, true)){
+                LOGGER.info("Job {} disabled", job.getName());
+                continue;
+            }
+            String cron = environment.getProperty(prefix + "cron");
+            Long fixedDelay = environment.getProperty(prefix + "fixed-delay-millis", Long.class);
+            long jitter = environment.getProperty(prefix + "jitter-millis", Long.class, 0L);
+            Trigger trigger;
+            String description;
+            if(cron != null && !cron.isBlank()){
+                trigger = new CronTrigger(cron);
+                description = "cron " + cron;
+            }
+            else if(fixedDelay != null){
+                trigger = new PeriodicTrigger(Duration.ofMillis(fixedDelay));
+                description = "every " + fixedDelay + "ms";
+            }
+            else {
+                throw new IllegalStateException("No cron or fixed-delay-millis configured for job " + job.getName());
+            }
+            if(jitter > 0){
+                trigger = new JitteredTrigger(trigger, jitter);
+                description += " +" + jitter + "ms jitter";
+            }
+            scheduledJobRunner.register(job, description);
+            taskRegistrar.addTriggerTask(() -> scheduledJobRunner.execute(job), trigger);
+            LOGGER.info("Scheduled job {} ({})", job.getName(), description);
+        }
+    }
+}
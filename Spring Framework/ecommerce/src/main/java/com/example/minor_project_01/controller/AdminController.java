@@ -1,13 +1,20 @@
 package com.example.minor_project_01.controller;
 
 
+import com.example.minor_project_01.config.ScheduledJobRunner;
 import com.example.minor_project_01.dto.CreateCompanyRequestDto;
 import com.example.minor_project_01.dto.CreateResponseDTO;
+import com.example.minor_project_01.dto.IdFilterStatsDto;
+import com.example.minor_project_01.dto.JobRunStatsDto;
 import com.example.minor_project_01.dto.ResponseDTO;
 import com.example.minor_project_01.dto.SellerDTO;
 import com.example.minor_project_01.exception.NotFoundException;
 import com.example.minor_project_01.repo.UserRepo;
 import com.example.minor_project_01.service.AdminService;
+import com.example.minor_project_01.service.IdExistenceFilter;
+import com.example.minor_project_01.service.JobLeaseService;
+import com.example.minor_project_01.service.LeaderElectionService;
+import com.example.minor_project_01.service.SalesRollupService;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
@@ -15,7 +22,9 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.util.List;
 
 @Tag(name = "ADMIN Panel APIs", description = "APIs for managing Sellers,Company,Category")
@@ -28,6 +37,21 @@ public class AdminController {
     @Autowired
     private AdminService adminService;
 
+    @Autowired
+    private SalesRollupService salesRollupService;
+
+    @Autowired
+    private ScheduledJobRunner scheduledJobRunner;
+
+    @Autowired
+    private JobLeaseService jobLeaseService;
+
+    @Autowired
+    private LeaderElectionService leaderElectionService;
+
+    @Autowired
+    private IdExistenceFilter idExistenceFilter;
+
 
 
     @PostMapping("/company")
@@ -42,12 +66,65 @@ public class AdminController {
         return ResponseEntity.ok(adminService.createSeller(sellerDTO));
     }
 
+    @PostMapping("/company/bulk")
+    public ResponseEntity<List<CreateResponseDTO>> createCompanies(@RequestBody List<CreateCompanyRequestDto> companyRequests){
+        LOGGER.info("Creating {} companies", companyRequests.size());
+        return ResponseEntity.ok(adminService.createCompanies(companyRequests));
+    }
+
+    @PostMapping("/seller/bulk")
+    public ResponseEntity<List<CreateResponseDTO>> createSellers(@RequestBody List<SellerDTO> sellers){
+        LOGGER.info("Creating {} sellers", sellers.size());
+        return ResponseEntity.ok(adminService.createSellers(sellers));
+    }
+
+    @PostMapping("/seller/bulk/csv")
+    public ResponseEntity<List<CreateResponseDTO>> createSellersFromCsv(@RequestParam MultipartFile file) throws IOException {
+        LOGGER.info("Creating sellers from file:{}", file.getOriginalFilename());
+        return ResponseEntity.ok(adminService.createSellersFromCsv(file.getInputStream()));
+    }
+
     @GetMapping("/seller")
     public ResponseEntity<List<SellerDTO>> getAllSellers(){
         LOGGER.info("Getting all sellers");
         return ResponseEntity.ok(adminService.getAllSellers());
     }
 
+    @GetMapping("/jobs")
+    public ResponseEntity<List<JobRunStatsDto>> getJobStats(){
+        return ResponseEntity.ok(scheduledJobRunner.getStats());
+    }
+
+    @GetMapping("/cluster")
+    public ResponseEntity<ResponseDTO> getClusterStatus(){
+        JobLeaseService.Lease leaderLease = leaderElectionService.getLeaderLease();
+        ResponseDTO responseDTO = new ResponseDTO();
+        responseDTO.setStatusCode(leaderLease != null ? "LEADER" : "FOLLOWER");
+        responseDTO.setMsg("Node " + jobLeaseService.getNodeId()
+                + (leaderLease != null ? " is leader with fencing token " + leaderLease.getFencingToken() : " is not leader"));
+        return ResponseEntity.ok(responseDTO);
+    }
+
+    @GetMapping("/id-filters")
+    public ResponseEntity<List<IdFilterStatsDto>> getIdFilterStats(){
+        return ResponseEntity.ok(idExistenceFilter.getStats());
+    }
+
+    @PostMapping("/stats/backfill")
+    public ResponseEntity<ResponseDTO> backfillSalesStats(){
+        LOGGER.info("Starting sales stats backfill");
+        ResponseDTO responseDTO = new ResponseDTO();
+        if(salesRollupService.startBackfill()){
+            responseDTO.setMsg("Backfill started");
+            responseDTO.setStatusCode("123-B");
+        }
+        else {
+            responseDTO.setMsg("Backfill already running");
+            responseDTO.setStatusCode("145-B");
+        }
+        return ResponseEntity.ok(responseDTO);
+    }
+
     @DeleteMapping("/seller/{id}")
     public ResponseEntity<ResponseDTO> deleteSeller(@PathVariable Long id) throws NotFoundException {
         return ResponseEntity.ok(adminService.deleteSeller(id));
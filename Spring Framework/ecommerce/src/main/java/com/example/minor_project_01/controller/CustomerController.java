@@ -2,11 +2,13 @@ package com.example.minor_project_01.controller;
 
 
 import com.example.minor_project_01.dto.AddToOrderDto;
+import com.example.minor_project_01.dto.FacetedBrowseResponseDto;
 import com.example.minor_project_01.dto.OrderDetailDto;
 import com.example.minor_project_01.dto.ProductDTO;
 import com.example.minor_project_01.dto.ResponseDTO;
 import com.example.minor_project_01.exception.NotFoundException;
 import com.example.minor_project_01.service.CustomerService;
+import com.example.minor_project_01.service.ProductFacetIndex;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
@@ -20,6 +22,8 @@ import java.util.List;
 @RequestMapping("/api/customer")
 public class CustomerController {
 
+    private static final int MAX_BROWSE_PAGE_SIZE = 100;
+
     @Autowired
     private CustomerService customerService;
 
@@ -32,8 +36,26 @@ public class CustomerController {
         return ResponseEntity.ok(customerService.getProductByKeyword(keyword,pageable));
     }
 
+    @GetMapping("/products/browse")
+    public ResponseEntity<FacetedBrowseResponseDto> browseProducts(@RequestParam(required = false) List<Long> categoryId,
+                                                                   @RequestParam(required = false) List<Long> companyId,
+                                                                   @RequestParam(required = false) Double minPrice,
+                                                                   @RequestParam(required = false) Double maxPrice,
+                                                                   @RequestParam(required = false) Boolean inStock,
+                                                                   @RequestParam(defaultValue = "20") Integer pageSize,
+                                                                   @RequestParam(defaultValue = "0") Integer pageNo){
+        ProductFacetIndex.Query query = new ProductFacetIndex.Query();
+        query.categoryIds = categoryId;
+        query.companyIds = companyId;
+        query.minPrice = minPrice;
+        query.maxPrice = maxPrice;
+        query.inStock = inStock;
+        int size = Math.max(1, Math.min(pageSize, MAX_BROWSE_PAGE_SIZE));
+        return ResponseEntity.ok(customerService.browseProducts(query, Math.max(0, pageNo), size));
+    }
+
     @GetMapping("/product/{id}")
-    public ResponseEntity<ProductDTO> getProduct(@PathVariable Long id){
+    public ResponseEntity<ProductDTO> getProduct(@PathVariable Long id) throws NotFoundException {
         return ResponseEntity.ok(customerService.getProduct(id));
     }
 
@@ -44,10 +66,15 @@ public class CustomerController {
     }
 
     @PutMapping("/order/{id}/submit")
-    public ResponseEntity<ResponseDTO>  submitOrder(@PathVariable Long id){
+    public ResponseEntity<ResponseDTO>  submitOrder(@PathVariable Long id) throws NotFoundException {
         return ResponseEntity.ok(customerService.submitOrder(id));
     }
 
+    @GetMapping("/order/{id}")
+    public ResponseEntity<OrderDetailDto> getOrderDetail(@PathVariable Long id) throws NotFoundException {
+        return ResponseEntity.ok(customerService.getOrderDetail(id));
+    }
+
 //    @GetMapping("/orders")
 //    public ResponseEntity<List<OrderDetailDto>> getAllOrders(){
 //
@@ -2,9 +2,13 @@ package com.example.minor_project_01.controller;
 
 
 import com.example.minor_project_01.dto.CreateResponseDTO;
+import com.example.minor_project_01.dto.ImportJobDto;
 import com.example.minor_project_01.dto.ProductDTO;
 import com.example.minor_project_01.dto.ResponseDTO;
+import com.example.minor_project_01.dto.SellerSalesStatsDto;
 import com.example.minor_project_01.exception.NotFoundException;
+import com.example.minor_project_01.service.BulkImportService;
+import com.example.minor_project_01.service.SalesRollupService;
 import com.example.minor_project_01.service.SellerService;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
@@ -13,6 +17,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
@@ -21,6 +26,7 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
@@ -43,6 +49,12 @@ public class SellerController {
     @Autowired
     private SellerService sellerService;
 
+    @Autowired
+    private SalesRollupService salesRollupService;
+
+    @Autowired
+    private BulkImportService bulkImportService;
+
 
     @PostMapping("/product")
     public ResponseEntity<CreateResponseDTO> createProduct(@RequestBody ProductDTO productDTO){
@@ -55,7 +67,7 @@ public class SellerController {
     }
 
     @PutMapping("/product/{id}")
-    public ResponseEntity<ResponseDTO> updateProduct(@PathVariable Long id, @RequestBody ProductDTO productDTO){
+    public ResponseEntity<ResponseDTO> updateProduct(@PathVariable Long id, @RequestBody ProductDTO productDTO) throws NotFoundException {
         return ResponseEntity.ok(sellerService.updateProduct(id,productDTO));
     }
 
@@ -66,6 +78,14 @@ public class SellerController {
 
 
 
+    // Served only from the daily rollup table, never from orders.
+    @GetMapping("/stats")
+    public ResponseEntity<List<SellerSalesStatsDto>> getStats(@RequestParam Long companyId,
+                                                              @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                              @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to){
+        return ResponseEntity.ok(salesRollupService.getStats(companyId, from, to));
+    }
+
 //    @PutMapping("/order/{id}/accept")
 //    public ResponseEntity<ResponseDTO>  submitOrder(@PathVariable Long id){
 //
@@ -94,14 +114,7 @@ public class SellerController {
         CSVParser csvParser = new CSVParser(fileReader, CSVFormat.DEFAULT.withFirstRecordAsHeader().withIgnoreHeaderCase().withTrim());
         List<CSVRecord> csvRecords = csvParser.getRecords();
         for(CSVRecord csvRecord: csvRecords){
-            ProductDTO requestDto = new ProductDTO();
-            requestDto.setName(csvRecord.get("name"));
-            requestDto.setDescription(csvRecord.get("description"));
-            requestDto.setPrice(Double.valueOf(csvRecord.get("price")));
-            requestDto.setActive(Boolean.valueOf(csvRecord.get("active")));
-            requestDto.setCompanyId(Long.valueOf(csvRecord.get("companyId")));
-            requestDto.setImageUrl(csvRecord.get("imageUrl"));
-            requestDto.setCategoryId(Long.valueOf(csvRecord.get("categoryId")));
+            ProductDTO requestDto = ProductDTO.buildDTOFromCsvRecord(csvRecord);
             CreateResponseDTO responseDTO = sellerService.createProduct(requestDto);
             responseDTOList.add(responseDTO);
         }
@@ -109,6 +122,23 @@ public class SellerController {
 
     }
 
+    // Returns at once with a job id, the file is imported in the background in checkpointed chunks.
+    @PostMapping("/product/bulk/async")
+    public ResponseEntity<ImportJobDto> createProductInBulkAsync(@RequestParam MultipartFile file) throws IOException {
+        LOGGER.info("Queueing import of File Name:{}",file.getOriginalFilename());
+        return ResponseEntity.ok(bulkImportService.upload(file));
+    }
+
+    @GetMapping("/product/bulk/{jobId}")
+    public ResponseEntity<ImportJobDto> getBulkImportJob(@PathVariable Long jobId) throws NotFoundException {
+        return ResponseEntity.ok(bulkImportService.getJob(jobId));
+    }
+
+    @PostMapping("/product/bulk/{jobId}/resume")
+    public ResponseEntity<ImportJobDto> resumeBulkImportJob(@PathVariable Long jobId) throws NotFoundException {
+        return ResponseEntity.ok(bulkImportService.resume(jobId));
+    }
+
 
 
 
@@ -0,0 +1,22 @@
+package com.example.minor_project_01.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+import java.util.Map;
+
+@Setter
+@Getter
+public class FacetedBrowseResponseDto {
+
+    private List<ProductDTO> products;
+    private Integer totalMatches;
+
+    // Each facet is counted with every filter applied except its own, so the UI can show
+    // how many products selecting another value would give.
+    private Map<Long, Integer> categoryCounts;
+    private Map<Long, Integer> companyCounts;
+    private Map<String, Integer> priceBucketCounts;
+    private Integer inStockCount;
+}
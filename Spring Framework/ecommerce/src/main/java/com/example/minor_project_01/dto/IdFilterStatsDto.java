@@ -0,0 +1,26 @@
+package com.example.minor_project_01.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Setter
+@Getter
+public class IdFilterStatsDto {
+
+    private String type;
+    private Boolean ready;
+    private Long expectedInsertions;
+    private Long insertions;
+    private Long bitCount;
+    private Integer hashFunctions;
+    private Double estimatedFalsePositiveRate;
+    private Long coveredUpToId;
+    private Long checks;
+    private Long rejected;
+    private Long falsePositives;
+    private Double observedFalsePositiveRate;
+    private LocalDateTime lastRebuildAt;
+    private Long lastRebuildMillis;
+}
@@ -0,0 +1,57 @@
+package com.example.minor_project_01.dto;
+
+import com.example.minor_project_01.entity.ImportJob;
+import com.example.minor_project_01.entity.ImportJobError;
+import com.example.minor_project_01.entity.ImportJobStatus;
+import lombok.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Setter
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportJobDto {
+
+    private Long jobId;
+    private String fileName;
+    private ImportJobStatus status;
+    private Long processedRows;
+    private Long succeededRows;
+    private Long failedRows;
+    private Double rowsPerSecond;
+    private String lastError;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private List<String> errors;
+
+    public static ImportJobDto buildDTOFromJob(ImportJob job, List<ImportJobError> errors){
+        Double rowsPerSecond = null;
+        if(job.getStartedAt() != null){
+            LocalDateTime end = job.getFinishedAt() != null ? job.getFinishedAt() : LocalDateTime.now();
+            long millis = Math.max(1, Duration.between(job.getStartedAt(), end).toMillis());
+            rowsPerSecond = job.getProcessedRows() * 1000.0 / millis;
+        }
+        List<String> errorMessages = new ArrayList<>();
+        for(ImportJobError error : errors){
+            errorMessages.add("Row " + error.getRowNumber() + ": " + error.getMessage());
+        }
+        return ImportJobDto.builder()
+                .jobId(job.getId())
+                .fileName(job.getFileName())
+                .status(job.getStatus())
+                .processedRows(job.getProcessedRows())
+                .succeededRows(job.getSucceededRows())
+                .failedRows(job.getFailedRows())
+                .rowsPerSecond(rowsPerSecond)
+                .lastError(job.getLastError())
+                .startedAt(job.getStartedAt())
+                .finishedAt(job.getFinishedAt())
+                .errors(errorMessages)
+                .build();
+    }
+}
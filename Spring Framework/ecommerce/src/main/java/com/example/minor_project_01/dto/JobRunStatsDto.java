@@ -0,0 +1,24 @@
+package com.example.minor_project_01.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Setter
+@Getter
+public class JobRunStatsDto {
+
+    private String name;
+    private String trigger;
+    private Boolean running;
+    private Long runs;
+    private Long failures;
+    private Long skippedOverlap;
+    private Long skippedNoLease;
+    private Long lastDurationMillis;
+    private Long maxDurationMillis;
+    private Long averageDurationMillis;
+    private LocalDateTime lastStartedAt;
+    private String lastError;
+}
@@ -12,4 +12,7 @@ public class OrderDetailDto {
     private Long orderId;
     private List<OrderItemDto> orderItems;
     private Double orderTotalPrice;
+    private String status;
+    // false: OrderDetailAssembler hit its deadline, some product/company fields are missing.
+    private Boolean complete;
 }
@@ -17,6 +17,14 @@ public class OrderItemDto {
     private String productName;
     private Double totalPrice;
 
+    // Filled by OrderDetailAssembler, null elsewhere.
+    private Long productId;
+    private Boolean productActive;
+    private Integer availableStock;
+    private Long companyId;
+    private String companyName;
+    private String categoryName;
+
 
     public static OrderItemDto mapOrderItemToDto(OrderItem orderItem){
         OrderItemDto orderItemDto = OrderItemDto.builder()
@@ -0,0 +1,57 @@
+package com.example.minor_project_01.dto;
+
+import lombok.*;
+
+/*
+One entry of the product change feed. offset is assigned by ProductChangeFeed when the
+event is appended to the log, services publish it with offset = null.
+ */
+@Setter
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductChangeEvent {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED, STOCK_CHANGED
+    }
+
+    private Long offset;
+    private Type type;
+    private Long productId;
+    private Integer stock;
+    private Double price;
+    private Long timestamp;
+
+    public static ProductChangeEvent of(Type type, Long productId, Integer stock, Double price){
+        return ProductChangeEvent.builder()
+                .type(type)
+                .productId(productId)
+                .stock(stock)
+                .price(price)
+                .timestamp(System.currentTimeMillis())
+                .build();
+    }
+
+    // offset|type|productId|stock|price|timestamp
+    public String toLogLine(){
+        return offset + "|" + type + "|" + productId + "|" + nullable(stock) + "|" + nullable(price) + "|" + timestamp;
+    }
+
+    public static ProductChangeEvent fromLogLine(String line){
+        String[] parts = line.split("\\|", -1);
+        return ProductChangeEvent.builder()
+                .offset(Long.valueOf(parts[0]))
+                .type(Type.valueOf(parts[1]))
+                .productId(Long.valueOf(parts[2]))
+                .stock(parts[3].isEmpty() ? null : Integer.valueOf(parts[3]))
+                .price(parts[4].isEmpty() ? null : Double.valueOf(parts[4]))
+                .timestamp(Long.valueOf(parts[5]))
+                .build();
+    }
+
+    private static String nullable(Object value){
+        return value == null ? "" : value.toString();
+    }
+}
@@ -2,6 +2,7 @@ package com.example.minor_project_01.dto;
 
 import com.example.minor_project_01.entity.Product;
 import lombok.*;
+import org.apache.commons.csv.CSVRecord;
 
 @Setter
 @Getter
@@ -39,4 +40,20 @@ public class ProductDTO {
         return productDTO;
     }
 
+    // CSV columns: name,description,price,active,companyId,imageUrl,categoryId and optional stock
+    public static ProductDTO buildDTOFromCsvRecord(CSVRecord csvRecord){
+        ProductDTO requestDto = new ProductDTO();
+        requestDto.setName(csvRecord.get("name"));
+        requestDto.setDescription(csvRecord.get("description"));
+        requestDto.setPrice(Double.valueOf(csvRecord.get("price")));
+        requestDto.setActive(Boolean.valueOf(csvRecord.get("active")));
+        requestDto.setCompanyId(Long.valueOf(csvRecord.get("companyId")));
+        requestDto.setImageUrl(csvRecord.get("imageUrl"));
+        requestDto.setCategoryId(Long.valueOf(csvRecord.get("categoryId")));
+        if(csvRecord.isMapped("stock") && !csvRecord.get("stock").isEmpty()){
+            requestDto.setStock(Integer.valueOf(csvRecord.get("stock")));
+        }
+        return requestDto;
+    }
+
 }
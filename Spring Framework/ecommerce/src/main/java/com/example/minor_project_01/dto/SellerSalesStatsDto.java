@@ -0,0 +1,32 @@
+package com.example.minor_project_01.dto;
+
+import com.example.minor_project_01.entity.SellerProductDailySales;
+import lombok.*;
+
+import java.time.LocalDate;
+
+@Setter
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SellerSalesStatsDto {
+
+    private Long productId;
+    private LocalDate day;
+    private Long placedUnits;
+    private Double placedRevenue;
+    private Long deliveredUnits;
+    private Double deliveredRevenue;
+
+    public static SellerSalesStatsDto buildFromRollup(SellerProductDailySales rollup){
+        return SellerSalesStatsDto.builder()
+                .productId(rollup.getProductId())
+                .day(rollup.getSalesDay())
+                .placedUnits(rollup.getPlacedUnits())
+                .placedRevenue(rollup.getPlacedRevenue())
+                .deliveredUnits(rollup.getDeliveredUnits())
+                .deliveredRevenue(rollup.getDeliveredRevenue())
+                .build();
+    }
+}
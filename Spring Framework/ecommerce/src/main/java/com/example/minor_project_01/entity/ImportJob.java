@@ -0,0 +1,43 @@
+package com.example.minor_project_01.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/*
+Bulk product import. processedRows is the checkpoint: the number of CSV data rows
+already committed, a resumed job skips that many rows.
+ */
+@Setter
+@Getter
+@Entity
+public class ImportJob {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String fileName;
+    private String filePath;
+
+    @Enumerated(EnumType.STRING)
+    private ImportJobStatus status;
+
+    private Long processedRows;
+    private Long succeededRows;
+    private Long failedRows;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+    @UpdateTimestamp
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,24 @@
+package com.example.minor_project_01.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+@Entity
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(indexes = @Index(columnList = "jobId"))
+public class ImportJobError {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long jobId;
+    private Long rowNumber;
+
+    @Column(length = 1000)
+    private String message;
+}
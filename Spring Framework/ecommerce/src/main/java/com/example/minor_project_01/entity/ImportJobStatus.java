@@ -0,0 +1,5 @@
+package com.example.minor_project_01.entity;
+
+public enum ImportJobStatus {
+    QUEUED,RUNNING,COMPLETED,FAILED
+}
@@ -0,0 +1,23 @@
+package com.example.minor_project_01.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/*
+One row per lease name (job, import job, leader). Written by JobLeaseService with conditional updates.
+fencingToken grows by one every time the lease changes hands.
+ */
+@Setter
+@Getter
+@Entity
+public class JobLease {
+    @Id
+    private String jobName;
+    private String owner;
+    private LocalDateTime leaseUntil;
+    private Long fencingToken;
+}
@@ -2,12 +2,15 @@ package com.example.minor_project_01.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "CustomerOrder")
+// (status, updated_at) serves the draft expiry scan
+@Table(name = "CustomerOrder", indexes = {@Index(columnList = "user_id, status"), @Index(columnList = "status, updated_at")})
 @Builder
 @Getter
 @Setter
@@ -27,8 +30,13 @@ public class Order {
     @Enumerated(EnumType.STRING)
     private OrderStatus status;
 
+    @CreationTimestamp
     private LocalDateTime createdAt;
+    @UpdateTimestamp
     private LocalDateTime updatedAt;
+    // Set by the transition to PLACED / DELIVERED, the day the sales rollups count it on
+    private LocalDateTime placedAt;
+    private LocalDateTime deliveredAt;
 
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
     private List<OrderItem> orderItems;
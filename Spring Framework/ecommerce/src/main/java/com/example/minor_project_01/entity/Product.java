@@ -3,12 +3,14 @@ package com.example.minor_project_01.entity;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.SQLDelete;
 
 import java.time.LocalDateTime;
 
 @Setter
 @Getter
 @Entity
+@SQLDelete(sql = "update product set deleted = true, deleted_at = current_timestamp where id = ?")
 public class Product {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -26,6 +28,11 @@ public class Product {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
+    // Soft delete: rows stay until PurgeSoftDeletedTask archives them. Reads filter on deleted in
+    // ProductRepo rather than with @SQLRestriction, so order lines still load a deleted product.
+    private boolean deleted;
+    private LocalDateTime deletedAt;
+
     @ManyToOne
     private Company company;
 
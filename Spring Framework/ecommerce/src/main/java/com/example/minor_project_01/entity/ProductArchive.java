@@ -0,0 +1,37 @@
+package com.example.minor_project_01.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/*
+Purged products. Filled by PurgeSoftDeletedTask with INSERT ... SELECT, never written through JPA.
+The entity exists so ddl-auto creates the table.
+ */
+@Setter
+@Getter
+@Entity
+public class ProductArchive {
+    @Id
+    private Long id;
+
+    private String name;
+    private String description;
+
+    private Double price;
+    private Integer stock;
+    private Boolean active;
+
+    private String imageUrl;
+
+    private Long companyId;
+    private Long categoryId;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime deletedAt;
+    private LocalDateTime archivedAt;
+}
@@ -0,0 +1,39 @@
+package com.example.minor_project_01.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+/*
+Rollup of sales per product per day, maintained by SalesRollupService.
+placed* counts orders on the day they were placed (Order.placedAt), delivered* on the day they were delivered (Order.deliveredAt).
+Written with native upserts, read by /api/seller/stats.
+ */
+@Setter
+@Getter
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(columnNames = {"product_id", "sales_day"}),
+        indexes = @Index(columnList = "company_id, sales_day"))
+public class SellerProductDailySales {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "company_id")
+    private Long companyId;
+
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(name = "sales_day")
+    private LocalDate salesDay;
+
+    private Long placedUnits;
+    private Double placedRevenue;
+
+    private Long deliveredUnits;
+    private Double deliveredRevenue;
+}
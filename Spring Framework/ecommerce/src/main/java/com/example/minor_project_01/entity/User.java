@@ -3,6 +3,7 @@ package com.example.minor_project_01.entity;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.SQLDelete;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.springframework.data.annotation.CreatedDate;
 
@@ -12,6 +13,7 @@ import java.time.LocalDateTime;
 @Getter
 @Setter
 @Entity
+@SQLDelete(sql = "update user set deleted = true, deleted_at = current_timestamp where id = ?")
 public class User {
 
     @Id
@@ -35,4 +37,9 @@ public class User {
     @UpdateTimestamp
     private LocalDateTime updatedAt;
 
+    // Soft delete: rows stay until PurgeSoftDeletedTask archives them. Reads filter on deleted in
+    // UserRepo rather than with @SQLRestriction, so orders still load a deleted user.
+    private boolean deleted;
+    private LocalDateTime deletedAt;
+
 }
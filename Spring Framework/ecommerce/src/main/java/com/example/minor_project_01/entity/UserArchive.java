@@ -0,0 +1,37 @@
+package com.example.minor_project_01.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/*
+Purged users. Filled by PurgeSoftDeletedTask with INSERT ... SELECT, never written through JPA.
+The entity exists so ddl-auto creates the table.
+ */
+@Getter
+@Setter
+@Entity
+public class UserArchive {
+
+    @Id
+    private Long id;
+
+    private String name;
+
+    private String email;
+
+    @Enumerated(EnumType.STRING)
+    private Role role;
+
+    private Long companyId;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime deletedAt;
+    private LocalDateTime archivedAt;
+}
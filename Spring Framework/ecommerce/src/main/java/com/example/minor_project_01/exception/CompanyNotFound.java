@@ -1,8 +1,9 @@
 package com.example.minor_project_01.exception;
 
+// Stackless like NotFoundException.
 public class CompanyNotFound extends Exception{
 
     public CompanyNotFound(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
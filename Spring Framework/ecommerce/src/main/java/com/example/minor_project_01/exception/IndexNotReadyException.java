@@ -0,0 +1,11 @@
+package com.example.minor_project_01.exception;
+
+/*
+Thrown when an in-memory index is asked for results before its startup build has finished.
+ */
+public class IndexNotReadyException extends RuntimeException {
+
+    public IndexNotReadyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.minor_project_01.exception;
+
+/*
+Thrown when work guarded by a lease finds that the lease expired or was taken over.
+Unchecked so the surrounding transaction rolls back.
+ */
+public class LeaseLostException extends RuntimeException {
+
+    public LeaseLostException(String message) {
+        super(message);
+    }
+}
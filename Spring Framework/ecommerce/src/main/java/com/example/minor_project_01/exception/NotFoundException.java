@@ -1,8 +1,12 @@
 package com.example.minor_project_01.exception;
 
+/*
+Routine "does not exist" result (bots probe ids, so this is thrown a lot).
+No stack trace is captured: the message says everything and filling the trace is the expensive part.
+ */
 public class NotFoundException extends Exception{
 
     public NotFoundException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
@@ -0,0 +1,15 @@
+package com.example.minor_project_01.repo;
+
+import com.example.minor_project_01.entity.ImportJobError;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ImportJobErrorRepo extends JpaRepository<ImportJobError,Long> {
+    List<ImportJobError> findByJobIdOrderByRowNumberAsc(Long jobId, Pageable pageable);
+
+    long countByJobId(Long jobId);
+}
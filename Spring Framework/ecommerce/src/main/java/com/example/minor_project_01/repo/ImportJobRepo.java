@@ -0,0 +1,14 @@
+package com.example.minor_project_01.repo;
+
+import com.example.minor_project_01.entity.ImportJob;
+import com.example.minor_project_01.entity.ImportJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ImportJobRepo extends JpaRepository<ImportJob,Long> {
+    List<ImportJob> findByStatusIn(Collection<ImportJobStatus> statuses);
+}
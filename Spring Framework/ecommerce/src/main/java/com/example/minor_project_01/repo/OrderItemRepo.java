@@ -0,0 +1,17 @@
+package com.example.minor_project_01.repo;
+
+import com.example.minor_project_01.entity.OrderItem;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface OrderItemRepo extends JpaRepository<OrderItem,Long> {
+
+    // Cart lines with their products in one query.
+    @Query("select oi from OrderItem oi join fetch oi.product where oi.order.id = :orderId order by oi.id")
+    List<OrderItem> findByOrderIdWithProduct(@Param("orderId") Long orderId);
+}
@@ -3,13 +3,40 @@ package com.example.minor_project_01.repo;
 import com.example.minor_project_01.entity.Order;
 import com.example.minor_project_01.entity.OrderStatus;
 import com.example.minor_project_01.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.web.bind.annotation.RequestBody;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface OrderRepo extends JpaRepository<Order,Long> {
     List<Order> findByStatusAndUser(OrderStatus status, User user);
+
+    // Uses the (user_id, status) index
+    Optional<Order> findFirstByUserIdAndStatus(Long userId, OrderStatus status);
+
+    // Adds to the cart total only while the order is still DRAFT, returns 0 otherwise.
+    @Modifying
+    @Query("update Order o set o.totalAmount = o.totalAmount + :amount, o.updatedAt = :now where o.id = :id and o.status = :status")
+    int addToTotalIfStatus(@Param("id") Long id, @Param("amount") Double amount, @Param("status") OrderStatus status, @Param("now") LocalDateTime now);
+
+    @Query("select o.totalAmount from Order o where o.id = :id")
+    Double findTotalAmountById(@Param("id") Long id);
+
+    // Rows are [orderId, userId]. Written without coalesce() so the (status, updated_at) index serves it.
+    @Query("select o.id, o.user.id from Order o where o.status = :status"
+            + " and (o.updatedAt < :cutoff or (o.updatedAt is null and o.createdAt < :cutoff)) order by o.id")
+    List<Object[]> findIdsAndUserIdsByStatusBefore(@Param("status") OrderStatus status, @Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    @Modifying
+    @Query("update Order o set o.status = :newStatus, o.updatedAt = :now where o.id in :ids and o.status = :oldStatus")
+    int changeStatus(@Param("ids") Collection<Long> ids, @Param("oldStatus") OrderStatus oldStatus, @Param("newStatus") OrderStatus newStatus, @Param("now") LocalDateTime now);
 }
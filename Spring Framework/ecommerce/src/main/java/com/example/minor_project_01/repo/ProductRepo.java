@@ -7,14 +7,27 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ProductRepo extends JpaRepository<Product,Long> {
 
-    List<Product> findByCompany(Company company);
+    // The inherited findById/findAll also return soft deleted products, the methods below do not.
+
+    Optional<Product> findByIdAndDeletedFalse(Long id);
+
+    List<Product> findByIdInAndDeletedFalse(Collection<Long> ids);
+
+    List<Product> findByDeletedFalse();
+
+    List<Product> findByCompanyAndDeletedFalse(Company company);
 
     // Select from Product where name like '%keyword%'
-    List<Product> findByNameContaining(String name, Pageable pageable);
+    List<Product> findByNameContainingAndDeletedFalse(String name, Pageable pageable);
+
+    // Keyset scan: Select from Product where id > lastId order by id limit pageSize
+    List<Product> findByIdGreaterThanAndDeletedFalseOrderByIdAsc(Long lastId, Pageable pageable);
 
 }
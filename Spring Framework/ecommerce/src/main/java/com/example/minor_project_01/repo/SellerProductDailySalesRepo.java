@@ -0,0 +1,14 @@
+package com.example.minor_project_01.repo;
+
+import com.example.minor_project_01.entity.SellerProductDailySales;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface SellerProductDailySalesRepo extends JpaRepository<SellerProductDailySales,Long> {
+
+    List<SellerProductDailySales> findByCompanyIdAndSalesDayBetweenOrderBySalesDayAscProductIdAsc(Long companyId, LocalDate from, LocalDate to);
+}
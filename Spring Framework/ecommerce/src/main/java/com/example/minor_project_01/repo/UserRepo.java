@@ -3,11 +3,23 @@ package com.example.minor_project_01.repo;
 import com.example.minor_project_01.entity.Role;
 import com.example.minor_project_01.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface UserRepo extends JpaRepository<User,Long> {
-    List<User> findByRole(Role role);
+    // The inherited findById/findAll also return soft deleted users, the methods below do not.
+
+    Optional<User> findByIdAndDeletedFalse(Long id);
+
+    List<User> findByRoleAndDeletedFalse(Role role);
+
+    // Select email from User where email in (...), soft deleted users included since they still hold the unique email
+    @Query("select u.email from User u where u.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
 }
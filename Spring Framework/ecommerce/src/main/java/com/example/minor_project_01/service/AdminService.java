@@ -11,18 +11,34 @@ import com.example.minor_project_01.exception.NotFoundException;
 import com.example.minor_project_01.repo.CompanyRepo;
 import com.example.minor_project_01.repo.UserRepo;
 import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.client.HttpClientErrorException;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.stream.Collectors;
 
 @Service
 public class AdminService {
 
+    private static Logger LOGGER = LoggerFactory.getLogger(AdminService.class);
+
     @Autowired
     private EntityManager entityManager;
 
@@ -32,6 +48,18 @@ public class AdminService {
     @Autowired
     private UserRepo userRepo;
 
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private NegativeLookupCache negativeLookupCache;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.admin.bulk.batch-size:500}")
+    private int batchSize;
+
 
     @Transactional
     public CreateResponseDTO createCompany(CreateCompanyRequestDto companyRequestDto){
@@ -56,13 +84,196 @@ public class AdminService {
         seller.setEmail(sellerDTO.getEmail());
         seller.setRole(Role.SELLER);
         entityManager.persist(seller);
+        negativeLookupCache.created(NegativeLookupCache.USER, seller.getId());
         CreateResponseDTO response =  new CreateResponseDTO();
         response.setId(seller.getId());
         return response;
     }
 
+    /*
+    Bulk APIs: every item gets a CreateResponseDTO in request order (id on success, errorCode + message on failure).
+    Inserts run in chunks of batchSize, each chunk is its own transaction and the persistence
+    context is flushed and cleared after it so memory stays flat for large onboarding files.
+     */
+    public List<CreateResponseDTO> createCompanies(List<CreateCompanyRequestDto> requests){
+        CreateResponseDTO[] results = new CreateResponseDTO[requests.size()];
+        List<Integer> valid = new ArrayList<>();
+        for(int i = 0; i < requests.size(); i++){
+            CreateCompanyRequestDto request = requests.get(i);
+            if(request == null || request.getName() == null || request.getName().isBlank()){
+                results[i] = failed("INVALID", "Company name is required");
+            }
+            else {
+                valid.add(i);
+            }
+        }
+        for(int from = 0; from < valid.size(); from += batchSize){
+            List<Integer> chunk = valid.subList(from, Math.min(from + batchSize, valid.size()));
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    List<Company> companies = new ArrayList<>(chunk.size());
+                    for(Integer index : chunk){
+                        Company company = new Company();
+                        company.setName(requests.get(index).getName());
+                        company.setActive(true);
+                        entityManager.persist(company);
+                        companies.add(company);
+                    }
+                    entityManager.flush();
+                    entityManager.clear();
+                    for(int i = 0; i < chunk.size(); i++){
+                        results[chunk.get(i)] = created(companies.get(i).getId());
+                    }
+                });
+            } catch (RuntimeException e) {
+                LOGGER.error("Company batch failed", e);
+                markChunkFailed(results, chunk, e);
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    public List<CreateResponseDTO> createSellers(List<SellerDTO> sellers){
+        CreateResponseDTO[] results = new CreateResponseDTO[sellers.size()];
+
+        // Validate everything in memory first, then check the DB once per lookup type.
+        Set<String> emailsInRequest = new HashSet<>();
+        List<Integer> valid = new ArrayList<>();
+        for(int i = 0; i < sellers.size(); i++){
+            SellerDTO seller = sellers.get(i);
+            if(seller == null){
+                results[i] = failed("INVALID", "Seller is required");
+                continue;
+            }
+            Set<ConstraintViolation<SellerDTO>> violations = validator.validate(seller);
+            if(!violations.isEmpty()){
+                String message = violations.stream()
+                        .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                        .collect(Collectors.joining(", "));
+                results[i] = failed("INVALID", message);
+            }
+            else if(!emailsInRequest.add(seller.getEmail())){
+                results[i] = failed("DUPLICATE_EMAIL", "Email repeated in request: " + seller.getEmail());
+            }
+            else {
+                valid.add(i);
+            }
+        }
+
+        for(int from = 0; from < valid.size(); from += batchSize){
+            List<Integer> chunk = valid.subList(from, Math.min(from + batchSize, valid.size()));
+            try {
+                persistSellerChunk(sellers, chunk, results);
+            } catch (RuntimeException e) {
+                LOGGER.error("Seller batch failed", e);
+                markChunkFailed(results, chunk, e);
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    private void persistSellerChunk(List<SellerDTO> sellers, List<Integer> chunk, CreateResponseDTO[] results){
+        Set<Long> companyIds = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        for(Integer index : chunk){
+            companyIds.add(sellers.get(index).getCompanyId());
+            emails.add(sellers.get(index).getEmail());
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            // One IN query per lookup instead of findById per seller.
+            Set<Long> existingCompanies = companyRepo.findAllById(companyIds).stream()
+                    .map(Company::getId)
+                    .collect(Collectors.toSet());
+            Set<String> existingEmails = new HashSet<>(userRepo.findExistingEmails(emails));
+
+            List<Integer> persisted = new ArrayList<>(chunk.size());
+            List<User> users = new ArrayList<>(chunk.size());
+            for(Integer index : chunk){
+                SellerDTO sellerDTO = sellers.get(index);
+                if(!existingCompanies.contains(sellerDTO.getCompanyId())){
+                    results[index] = failed("COMPANY_NOT_FOUND", "Company Does not exist: " + sellerDTO.getCompanyId());
+                    continue;
+                }
+                if(existingEmails.contains(sellerDTO.getEmail())){
+                    results[index] = failed("DUPLICATE_EMAIL", "Email already registered: " + sellerDTO.getEmail());
+                    continue;
+                }
+                User seller = new User();
+                seller.setName(sellerDTO.getName());
+                seller.setCompany(entityManager.getReference(Company.class, sellerDTO.getCompanyId()));
+                seller.setEmail(sellerDTO.getEmail());
+                seller.setRole(Role.SELLER);
+                entityManager.persist(seller);
+                persisted.add(index);
+                users.add(seller);
+            }
+            entityManager.flush();
+            entityManager.clear();
+            for(int i = 0; i < persisted.size(); i++){
+                results[persisted.get(i)] = created(users.get(i).getId());
+                negativeLookupCache.created(NegativeLookupCache.USER, users.get(i).getId());
+            }
+        });
+    }
+
+    /*
+    CSV columns: name,email,companyId (header row required).
+    Records are streamed and handed over batchSize at a time, the file is never fully in memory.
+     */
+    public List<CreateResponseDTO> createSellersFromCsv(InputStream inputStream) throws IOException {
+        List<CreateResponseDTO> results = new ArrayList<>();
+        try (Reader reader = new InputStreamReader(inputStream, StandardCharsets.UTF_8);
+             CSVParser csvParser = new CSVParser(reader, CSVFormat.DEFAULT.withFirstRecordAsHeader().withIgnoreHeaderCase().withTrim())) {
+            List<SellerDTO> chunk = new ArrayList<>(batchSize);
+            for(CSVRecord csvRecord : csvParser){
+                chunk.add(SellerDTO.builder()
+                        .name(csvRecord.get("name"))
+                        .email(csvRecord.get("email"))
+                        .companyId(parseLong(csvRecord.get("companyId")))
+                        .build());
+                if(chunk.size() == batchSize){
+                    results.addAll(createSellers(chunk));
+                    chunk = new ArrayList<>(batchSize);
+                }
+            }
+            if(!chunk.isEmpty()){
+                results.addAll(createSellers(chunk));
+            }
+        }
+        return results;
+    }
+
+    private static Long parseLong(String value){
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            // Left null so validation reports it against this row.
+            return null;
+        }
+    }
+
+    private static CreateResponseDTO created(Long id){
+        CreateResponseDTO response = new CreateResponseDTO();
+        response.setId(id);
+        return response;
+    }
+
+    private static CreateResponseDTO failed(String errorCode, String message){
+        CreateResponseDTO response = new CreateResponseDTO();
+        response.setErrorCode(errorCode);
+        response.setMessage(message);
+        return response;
+    }
+
+    private static void markChunkFailed(CreateResponseDTO[] results, List<Integer> chunk, RuntimeException e){
+        for(Integer index : chunk){
+            results[index] = failed("BATCH_FAILED", e.getMessage());
+        }
+    }
+
+    @Transactional(readOnly = true)
     public List<SellerDTO> getAllSellers(){
-        List<User> userList = userRepo.findByRole(Role.SELLER);
+        List<User> userList = userRepo.findByRoleAndDeletedFalse(Role.SELLER);
         List<SellerDTO> result = new ArrayList<>();
         for(User user: userList){
             SellerDTO sellerDTO = SellerDTO.builder()
@@ -75,9 +286,11 @@ public class AdminService {
         return result;
     }
 
+    @Transactional
     public ResponseDTO deleteSeller(Long id) throws NotFoundException {
-        User user = userRepo.findById(id).orElseThrow(()->new NotFoundException("Seller Does not exist. Please correct sellerId"));
-        userRepo.deleteById(id);
+        User user = userRepo.findByIdAndDeletedFalse(id).orElseThrow(()->new NotFoundException("Seller Does not exist. Please correct sellerId"));
+        // Soft delete (see @SQLDelete on User), the row is archived later by PurgeSoftDeletedTask.
+        userRepo.delete(user);
         ResponseDTO responseDTO = new ResponseDTO();
         responseDTO.setMsg("Seller Deleted");
         responseDTO.setStatusCode("123-D");
@@ -0,0 +1,263 @@
+package com.example.minor_project_01.service;
+
+import com.example.minor_project_01.dto.ImportJobDto;
+import com.example.minor_project_01.dto.ProductDTO;
+import com.example.minor_project_01.entity.ImportJob;
+import com.example.minor_project_01.entity.ImportJobError;
+import com.example.minor_project_01.entity.ImportJobStatus;
+import com.example.minor_project_01.exception.LeaseLostException;
+import com.example.minor_project_01.exception.NotFoundException;
+import com.example.minor_project_01.repo.ImportJobErrorRepo;
+import com.example.minor_project_01.repo.ImportJobRepo;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+
+/*
+Asynchronous bulk product import.
+- upload stores the CSV under app.import.dir and creates a QUEUED ImportJob.
+- A bounded pool (app.import.workers threads, app.import.queue-capacity waiting jobs) runs the jobs.
+  Jobs that do not fit stay QUEUED and are picked up by the periodic requeue.
+- Rows are committed in chunks of app.import.chunk-size. The products and the job checkpoint
+  (processedRows and counters) are written in the same transaction, so after a crash or restart
+  the job resumes from the last committed chunk without creating duplicates.
+- With several instances every job is claimed through an "import-job-<id>" lease, so each job
+  runs on exactly one node and the jobs spread over the nodes. Each chunk checks the lease's
+  fencing token before committing; a node that lost its lease stops without writing.
+ */
+@Service
+public class BulkImportService {
+
+    private static Logger LOGGER = LoggerFactory.getLogger(BulkImportService.class);
+
+    private static final int MAX_STORED_ERRORS = 1000;
+    private static final int MAX_RETURNED_ERRORS = 100;
+
+    @Autowired
+    private ImportJobRepo importJobRepo;
+
+    @Autowired
+    private ImportJobErrorRepo importJobErrorRepo;
+
+    @Autowired
+    private SellerService sellerService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JobLeaseService jobLeaseService;
+
+    @Value("${app.import.lease-millis:30000}")
+    private long leaseMillis;
+
+    @Value("${app.import.dir:/tmp/imports/}")
+    private String importDir;
+
+    @Value("${app.import.workers:2}")
+    private int workers;
+
+    @Value("${app.import.queue-capacity:10}")
+    private int queueCapacity;
+
+    @Value("${app.import.chunk-size:500}")
+    private int chunkSize;
+
+    private ThreadPoolExecutor executor;
+    private final Set<Long> activeJobs = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    public void init() throws IOException {
+        Files.createDirectories(Path.of(importDir));
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public ImportJobDto upload(MultipartFile file) throws IOException {
+        Path target = Path.of(importDir, UUID.randomUUID() + "_" + file.getOriginalFilename());
+        file.transferTo(target);
+        ImportJob job = new ImportJob();
+        job.setFileName(file.getOriginalFilename());
+        job.setFilePath(target.toString());
+        job.setStatus(ImportJobStatus.QUEUED);
+        job.setProcessedRows(0L);
+        job.setSucceededRows(0L);
+        job.setFailedRows(0L);
+        job = importJobRepo.save(job);
+        submit(job.getId());
+        return ImportJobDto.buildDTOFromJob(job, List.of());
+    }
+
+    public ImportJobDto getJob(Long jobId) throws NotFoundException {
+        ImportJob job = importJobRepo.findById(jobId).orElseThrow(() -> new NotFoundException("Import job does not exist"));
+        return ImportJobDto.buildDTOFromJob(job,
+                importJobErrorRepo.findByJobIdOrderByRowNumberAsc(jobId, PageRequest.of(0, MAX_RETURNED_ERRORS)));
+    }
+
+    public ImportJobDto resume(Long jobId) throws NotFoundException {
+        ImportJob job = importJobRepo.findById(jobId).orElseThrow(() -> new NotFoundException("Import job does not exist"));
+        if(job.getStatus() == ImportJobStatus.FAILED){
+            job.setStatus(ImportJobStatus.QUEUED);
+            job.setFinishedAt(null);
+            job = importJobRepo.save(job);
+        }
+        submit(jobId);
+        return ImportJobDto.buildDTOFromJob(job, List.of());
+    }
+
+    // Jobs that were RUNNING when the app stopped continue from their checkpoint.
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.import.requeue-millis:30000}", initialDelayString = "${app.import.requeue-millis:30000}")
+    public void requeuePendingJobs(){
+        for(ImportJob job : importJobRepo.findByStatusIn(List.of(ImportJobStatus.QUEUED, ImportJobStatus.RUNNING))){
+            submit(job.getId());
+        }
+    }
+
+    private void submit(Long jobId){
+        if(!activeJobs.add(jobId)){
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    run(jobId);
+                } finally {
+                    activeJobs.remove(jobId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            activeJobs.remove(jobId);
+            LOGGER.info("Import workers busy, job {} stays queued", jobId);
+        }
+    }
+
+    private void run(Long jobId){
+        JobLeaseService.Lease lease = jobLeaseService.tryAcquire("import-job-" + jobId, Duration.ofMillis(leaseMillis));
+        if(lease == null){
+            // Running on another node.
+            return;
+        }
+        jobLeaseService.startRenewal(lease);
+        try {
+            run(jobId, lease);
+        } finally {
+            jobLeaseService.release(lease);
+        }
+    }
+
+    private void run(Long jobId, JobLeaseService.Lease lease){
+        ImportJob job = importJobRepo.findById(jobId).orElse(null);
+        if(job == null || job.getStatus() == ImportJobStatus.COMPLETED){
+            return;
+        }
+        job.setStatus(ImportJobStatus.RUNNING);
+        if(job.getStartedAt() == null){
+            job.setStartedAt(LocalDateTime.now());
+        }
+        importJobRepo.save(job);
+        LOGGER.info("Running import job {} from row {}", jobId, job.getProcessedRows());
+
+        long checkpoint = job.getProcessedRows();
+        try (Reader reader = Files.newBufferedReader(Path.of(job.getFilePath()), StandardCharsets.UTF_8);
+             CSVParser csvParser = new CSVParser(reader, CSVFormat.DEFAULT.withFirstRecordAsHeader().withIgnoreHeaderCase().withTrim())) {
+            Iterator<CSVRecord> records = csvParser.iterator();
+            long rowNumber = 0;
+            while (rowNumber < checkpoint && records.hasNext()) {
+                records.next();
+                rowNumber++;
+            }
+            List<CSVRecord> chunk = new ArrayList<>(chunkSize);
+            while (records.hasNext()) {
+                chunk.add(records.next());
+                if(chunk.size() == chunkSize){
+                    commitChunk(jobId, lease, chunk, rowNumber);
+                    rowNumber += chunk.size();
+                    chunk.clear();
+                }
+            }
+            if(!chunk.isEmpty()){
+                commitChunk(jobId, lease, chunk, rowNumber);
+            }
+            finish(jobId, ImportJobStatus.COMPLETED, null);
+            LOGGER.info("Import job {} completed", jobId);
+        } catch (LeaseLostException e) {
+            // The new owner continues from the last checkpoint, leave the job as it is.
+            LOGGER.warn("Import job {} stopped: {}", jobId, e.getMessage());
+        } catch (IOException | RuntimeException e) {
+            LOGGER.error("Import job {} failed", jobId, e);
+            finish(jobId, ImportJobStatus.FAILED, e.getMessage());
+        }
+    }
+
+    private void commitChunk(Long jobId, JobLeaseService.Lease lease, List<CSVRecord> chunk, long firstRowNumber){
+        transactionTemplate.executeWithoutResult(status -> {
+            jobLeaseService.assertStillHeld(lease);
+            ImportJob job = importJobRepo.findById(jobId).orElseThrow();
+            long succeeded = 0;
+            List<ImportJobError> errors = new ArrayList<>();
+            for(int i = 0; i < chunk.size(); i++){
+                long rowNumber = firstRowNumber + i + 1;
+                try {
+                    ProductDTO productDTO = ProductDTO.buildDTOFromCsvRecord(chunk.get(i));
+                    sellerService.createProduct(productDTO);
+                    succeeded++;
+                } catch (IllegalArgumentException | NoSuchElementException e) {
+                    // Bad number, missing column, unknown company/category. Row is skipped.
+                    errors.add(ImportJobError.builder()
+                            .jobId(jobId)
+                            .rowNumber(rowNumber)
+                            .message(e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage())
+                            .build());
+                }
+            }
+            long storedErrors = job.getFailedRows();
+            if(storedErrors < MAX_STORED_ERRORS && !errors.isEmpty()){
+                importJobErrorRepo.saveAll(errors.subList(0, (int) Math.min(errors.size(), MAX_STORED_ERRORS - storedErrors)));
+            }
+            job.setProcessedRows(firstRowNumber + chunk.size());
+            job.setSucceededRows(job.getSucceededRows() + succeeded);
+            job.setFailedRows(job.getFailedRows() + errors.size());
+            importJobRepo.save(job);
+        });
+    }
+
+    private void finish(Long jobId, ImportJobStatus status, String error){
+        importJobRepo.findById(jobId).ifPresent(job -> {
+            job.setStatus(status);
+            job.setFinishedAt(LocalDateTime.now());
+            if(error != null){
+                job.setLastError(error.length() > 1000 ? error.substring(0, 1000) : error);
+            }
+            importJobRepo.save(job);
+        });
+    }
+
+    @PreDestroy
+    public void shutdown(){
+        executor.shutdownNow();
+    }
+}
@@ -1,19 +1,25 @@
 package com.example.minor_project_01.service;
 
+import com.example.minor_project_01.config.ReadYourWritesTracker;
 import com.example.minor_project_01.dto.*;
 import com.example.minor_project_01.entity.*;
 import com.example.minor_project_01.exception.NotFoundException;
+import com.example.minor_project_01.repo.OrderItemRepo;
 import com.example.minor_project_01.repo.OrderRepo;
 import com.example.minor_project_01.repo.ProductRepo;
 import com.example.minor_project_01.repo.UserRepo;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class CustomerService {
@@ -27,8 +33,33 @@ public class CustomerService {
     @Autowired
     private OrderRepo orderRepo;
 
+    @Autowired
+    private OrderItemRepo orderItemRepo;
+
+    @Autowired
+    private DraftOrderCache draftOrderCache;
+
+    @Autowired
+    private NegativeLookupCache negativeLookupCache;
+
+    @Autowired
+    private ReadYourWritesTracker readYourWritesTracker;
+
+    @Autowired
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    @Autowired
+    private SalesRollupService salesRollupService;
+
+    @Autowired
+    private ProductFacetIndex productFacetIndex;
+
+    @Autowired
+    private OrderDetailAssembler orderDetailAssembler;
+
+    @Transactional(readOnly = true)
     public List<ProductDTO> getProductByKeyword(String keyword, Pageable pageable){
-        List<Product> productList = productRepo.findByNameContaining(keyword,pageable);
+        List<Product> productList = productRepo.findByNameContainingAndDeletedFalse(keyword,pageable);
         List<ProductDTO> result = new ArrayList<>();
         for(Product product: productList){
             ProductDTO productDTO = ProductDTO.buildDTOFromProduct(product);
@@ -37,64 +68,125 @@ public class CustomerService {
         return result;
     }
 
-    public ProductDTO getProduct(Long id){
-        Product product = productRepo.findById(id).get();
+    /*
+    Filters and facet counts come from ProductFacetIndex, only the products of the
+    requested page are loaded from the database (one IN query).
+     */
+    @Transactional(readOnly = true)
+    public FacetedBrowseResponseDto browseProducts(ProductFacetIndex.Query query, int pageNo, int pageSize){
+        ProductFacetIndex.Result facets = productFacetIndex.search(query, pageNo, pageSize);
+        Map<Long, Product> productsById = new HashMap<>();
+        for(Product product : productRepo.findByIdInAndDeletedFalse(facets.pageProductIds)){
+            productsById.put(product.getId(), product);
+        }
+        List<ProductDTO> products = new ArrayList<>();
+        for(Long productId : facets.pageProductIds){
+            Product product = productsById.get(productId);
+            if(product != null){
+                products.add(ProductDTO.buildDTOFromProduct(product));
+            }
+        }
+        FacetedBrowseResponseDto response = new FacetedBrowseResponseDto();
+        response.setProducts(products);
+        response.setTotalMatches(facets.totalMatches);
+        response.setCategoryCounts(facets.categoryCounts);
+        response.setCompanyCounts(facets.companyCounts);
+        response.setPriceBucketCounts(facets.priceBucketCounts);
+        response.setInStockCount(facets.inStockCount);
+        return response;
+    }
+
+    @Transactional(readOnly = true)
+    public ProductDTO getProduct(Long id) throws NotFoundException {
+        Product product = negativeLookupCache.findOrThrow(NegativeLookupCache.PRODUCT, id, productRepo::findByIdAndDeletedFalse, "Product Does not exist");
         ProductDTO productDTO = ProductDTO.buildDTOFromProduct(product);
         return productDTO;
     }
 
+    /*
+    Hit path (cart cached for the user): one conditional UPDATE of the order total and one
+    INSERT of the line, no order or user lookup.
+    Miss path: one lookup by the (user_id, status) index, then the cart's order id is cached.
+    Either way the total is only changed by the conditional UPDATE (never read-modify-write),
+    and the response's total and lines are read back from the database.
+     */
     @Transactional
     public OrderDetailDto addToOrder(AddToOrderDto addToOrderDto) throws NotFoundException {
-        Product product = productRepo.findById(addToOrderDto.getProductId()).orElseThrow(()->  new NotFoundException("Product Does not exist"));
+        Product product = negativeLookupCache.findOrThrow(NegativeLookupCache.PRODUCT, addToOrderDto.getProductId(), productRepo::findByIdAndDeletedFalse, "Product Does not exist");
+        Long userId = addToOrderDto.getUserId();
 
+        if(product.getStock() < addToOrderDto.getQuantity()){
+            //
+        }
+        //Pricing
+        double totalItemsPrice = product.getPrice() * addToOrderDto.getQuantity();
+        LocalDateTime now = LocalDateTime.now();
 
-        User user = userRepo.findById(addToOrderDto.getUserId()).get();
-        List<Order> orderList = orderRepo.findByStatusAndUser(OrderStatus.DRAFT,user);
-        Order existingOrder;
-        if(!orderList.isEmpty()){
-            existingOrder = orderList.get(0);
+        Long orderId = draftOrderCache.getOrderId(userId);
+        if(orderId != null && orderRepo.addToTotalIfStatus(orderId, totalItemsPrice, OrderStatus.DRAFT, now) == 0){
+            // Submitted or expired elsewhere, fall back to the lookup.
+            draftOrderCache.evict(userId);
+            orderId = null;
         }
-        else {
-            existingOrder = Order.builder()
-                    .status(OrderStatus.DRAFT)
-                    .totalAmount(0.0)
-                    .user(user)
-                    .orderItems(new ArrayList<>())
-                    .build();
+        if(orderId == null){
+            Order existingOrder = orderRepo.findFirstByUserIdAndStatus(userId, OrderStatus.DRAFT).orElse(null);
+            if(existingOrder != null && orderRepo.addToTotalIfStatus(existingOrder.getId(), totalItemsPrice, OrderStatus.DRAFT, now) == 1){
+                orderId = existingOrder.getId();
+            }
+            else {
+                User user = negativeLookupCache.findOrThrow(NegativeLookupCache.USER, userId, userRepo::findByIdAndDeletedFalse, "User Does not exist");
+                Order newOrder = Order.builder()
+                        .status(OrderStatus.DRAFT)
+                        .totalAmount(totalItemsPrice)
+                        .user(user)
+                        .orderItems(new ArrayList<>())
+                        .build();
+                orderId = orderRepo.save(newOrder).getId();
+            }
         }
+
         OrderItem orderItem = OrderItem.builder()
-                .order(existingOrder)
+                .order(orderRepo.getReferenceById(orderId))
                 .price(product.getPrice())
                 .quantity(addToOrderDto.getQuantity())
                 .product(product)
                 .build();
-        existingOrder.getOrderItems().add(orderItem);
-        if(product.getStock() < orderItem.getQuantity()){
-            //
-        }
-        //Pricing
-        double totalItemsPrice = product.getPrice() * orderItem.getQuantity();
-        existingOrder.setTotalAmount(existingOrder.getTotalAmount() + totalItemsPrice);
-        existingOrder = orderRepo.save(existingOrder);
-        product.setStock(product.getStock()-orderItem.getQuantity());
+        orderItemRepo.save(orderItem);
+        draftOrderCache.putAfterCommit(userId, orderId);
 
-        OrderDetailDto orderDetailDto = new OrderDetailDto();
-        orderDetailDto.setOrderId(existingOrder.getId());
-        orderDetailDto.setOrderTotalPrice(existingOrder.getTotalAmount());
+        product.setStock(product.getStock()-addToOrderDto.getQuantity());
+        applicationEventPublisher.publishEvent(ProductChangeEvent.of(ProductChangeEvent.Type.STOCK_CHANGED,
+                product.getId(), product.getStock(), product.getPrice()));
+        // Keep this customer's next reads on the primary so the cart is never stale.
+        readYourWritesTracker.markWrite(userId);
+
+        // Our UPDATE holds the order row lock, so total and lines are consistent with each other.
         List<OrderItemDto> orderItemDtoList = new ArrayList<>();
-        for(OrderItem orderItem1 : existingOrder.getOrderItems()){
-            orderItemDtoList.add(OrderItemDto.mapOrderItemToDto(orderItem1));
+        for(OrderItem cartItem : orderItemRepo.findByOrderIdWithProduct(orderId)){
+            orderItemDtoList.add(OrderItemDto.mapOrderItemToDto(cartItem));
         }
+        OrderDetailDto orderDetailDto = new OrderDetailDto();
+        orderDetailDto.setOrderId(orderId);
+        orderDetailDto.setOrderTotalPrice(orderRepo.findTotalAmountById(orderId));
         orderDetailDto.setOrderItems(orderItemDtoList);
         return orderDetailDto;
     }
 
-    public ResponseDTO submitOrder(Long orderId){
-        Order order = orderRepo.findById(orderId).get();
+    // No transaction: the assembler's batches run on their own threads.
+    public OrderDetailDto getOrderDetail(Long orderId) throws NotFoundException {
+        return orderDetailAssembler.assemble(orderId);
+    }
+
+    @Transactional
+    public ResponseDTO submitOrder(Long orderId) throws NotFoundException {
+        Order order = orderRepo.findById(orderId).orElseThrow(()-> new NotFoundException("Order Does not exist"));
         ResponseDTO responseDTO = new ResponseDTO();
         if(order.getStatus().equals(OrderStatus.DRAFT)){
             order.setStatus(OrderStatus.PLACED);
+            order.setPlacedAt(LocalDateTime.now());
             orderRepo.save(order);
+            salesRollupService.recordStatusChange(order, OrderStatus.PLACED);
+            draftOrderCache.evictAfterCommit(order.getUser().getId());
             responseDTO.setMsg("Submitted the Order");
             responseDTO.setStatusCode("123-OS");
             /*
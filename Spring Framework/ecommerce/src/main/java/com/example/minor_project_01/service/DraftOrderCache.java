@@ -0,0 +1,99 @@
+package com.example.minor_project_01.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+Per-user active cart: user id -> draft order id.
+Lets addToOrder skip the findFirstByUserIdAndStatus lookup (and its EAGER item load).
+Only the id is cached; the total and the cart lines always come from the database, so
+concurrent adds (on this or another instance) are never lost from the response.
+
+- Entries are changed only after the transaction that wrote the cart commits;
+  a rolled back cart write evicts the entry.
+- submitOrder and the expiry job evict. The cart write itself is conditional on the order
+  still being DRAFT, so a stale entry (e.g. order expired on another instance) is detected
+  and evicted instead of being written to.
+- Entries live at most ttl-millis.
+ */
+@Service
+public class DraftOrderCache {
+
+    @Value("${app.cart.cache.ttl-millis:300000}")
+    private long ttlMillis;
+
+    @Value("${app.cart.cache.max-users:100000}")
+    private int maxUsers;
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    private record Entry(Long orderId, long expiresAt) {
+    }
+
+    // Draft order id of the user's cart, null when not cached.
+    public Long getOrderId(Long userId){
+        Entry entry = entries.get(userId);
+        if(entry == null){
+            return null;
+        }
+        if(entry.expiresAt < System.currentTimeMillis()){
+            entries.remove(userId, entry);
+            return null;
+        }
+        return entry.orderId;
+    }
+
+    // Stores the order id once the current transaction commits.
+    public void putAfterCommit(Long userId, Long orderId){
+        if(!TransactionSynchronizationManager.isSynchronizationActive()){
+            put(userId, orderId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if(status == STATUS_COMMITTED){
+                    put(userId, orderId);
+                }
+                else {
+                    evict(userId);
+                }
+            }
+        });
+    }
+
+    private void put(Long userId, Long orderId){
+        if(entries.size() >= maxUsers){
+            long now = System.currentTimeMillis();
+            entries.values().removeIf(e -> e.expiresAt < now);
+            if(entries.size() >= maxUsers){
+                // Still full: drop everything rather than grow without bound, misses refill it.
+                entries.clear();
+            }
+        }
+        entries.put(userId, new Entry(orderId, System.currentTimeMillis() + ttlMillis));
+    }
+    public void evict(Long userId){
+        if(userId != null){
+            entries.remove(userId);
+        }
+    }
+
+    public void evictAfterCommit(Long userId){
+        if(!TransactionSynchronizationManager.isSynchronizationActive()){
+            evict(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                evict(userId);
+            }
+        });
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.minor_project_01.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/*
+Bloom filter over long ids. add() and mightContain() are lock free (bits are set with CAS),
+so ids can be added by request threads while others read.
+Sized for expectedInsertions at the target false positive rate; past that the real rate climbs,
+which getEstimatedFalsePositiveRate() shows, and the next rebuild resizes.
+ */
+public class IdBloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashFunctions;
+    private final long expectedInsertions;
+    private final AtomicLong insertions = new AtomicLong();
+
+    public IdBloomFilter(long expectedInsertions, double falsePositiveRate) {
+        long n = Math.max(1, expectedInsertions);
+        long bits = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int wordCount = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (bits + 63) / 64));
+        this.words = new AtomicLongArray(wordCount);
+        this.bitCount = (long) wordCount * 64;
+        this.hashFunctions = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+        this.expectedInsertions = n;
+    }
+
+    public void add(long id){
+        long hash = mix(id);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for(int i = 1; i <= hashFunctions; i++){
+            setBit(Math.floorMod(h1 + (long) i * h2, bitCount));
+        }
+        insertions.incrementAndGet();
+    }
+
+    public boolean mightContain(long id){
+        long hash = mix(id);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for(int i = 1; i <= hashFunctions; i++){
+            long bit = Math.floorMod(h1 + (long) i * h2, bitCount);
+            if((words.get((int) (bit >>> 6)) & (1L << bit)) == 0){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void setBit(long bit){
+        int index = (int) (bit >>> 6);
+        long mask = 1L << bit;
+        long word;
+        do {
+            word = words.get(index);
+            if((word & mask) != 0){
+                return;
+            }
+        } while(!words.compareAndSet(index, word, word | mask));
+    }
+
+    // (fraction of bits set) ^ k, the probability an absent id hits k set bits.
+    public double getEstimatedFalsePositiveRate(){
+        long set = 0;
+        for(int i = 0; i < words.length(); i++){
+            set += Long.bitCount(words.get(i));
+        }
+        return Math.pow((double) set / bitCount, hashFunctions);
+    }
+
+    // splitmix64 finalizer, sequential ids spread over the whole range.
+    private static long mix(long id){
+        long z = id + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    public long getBitCount() {
+        return bitCount;
+    }
+
+    public int getHashFunctions() {
+        return hashFunctions;
+    }
+
+    public long getExpectedInsertions() {
+        return expectedInsertions;
+    }
+
+    public long getInsertions() {
+        return insertions.get();
+    }
+}
@@ -0,0 +1,225 @@
+package com.example.minor_project_01.service;
+
+import com.example.minor_project_01.config.ScheduledJob;
+import com.example.minor_project_01.dto.IdFilterStatsDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+Bloom filters over existing product and user ids, checked by NegativeLookupCache before the DB.
+"Definitely absent" ids are rejected without a query; "maybe present" ids go to the DB as before,
+and when the DB misses that is counted as a false positive.
+
+- Built at startup and rebuilt every app.scheduler.jobs.rebuild-id-filters.fixed-delay-millis
+  (per node, no cluster lease) by a keyset scan of ids, sized from the current row count.
+- The filter only answers for ids up to the highest id its scan saw, less in-flight-id-margin
+  (identity ids handed out before the scan but committed after it). Anything above that is
+  "maybe present", so rows created on another node or outside the app are found before the
+  next rebuild.
+- Between rebuilds, ids created on this node are added through added(). Ids added while a
+  rebuild runs go into both filters, so the swap loses nothing. Deleted ids stay until the next
+  rebuild (they only cost a false positive).
+- Until the first build finishes every id is "maybe present".
+ */
+@Service
+public class IdExistenceFilter implements ScheduledJob {
+
+    private static Logger LOGGER = LoggerFactory.getLogger(IdExistenceFilter.class);
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Value("${app.id-filter.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.id-filter.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    // Head room over the current row count so inserts between rebuilds keep the rate near target.
+    @Value("${app.id-filter.growth-factor:1.5}")
+    private double growthFactor;
+
+    @Value("${app.id-filter.scan-page-size:10000}")
+    private int scanPageSize;
+
+    @Value("${app.id-filter.in-flight-id-margin:1000}")
+    private long inFlightIdMargin;
+
+    private final Map<String, Guard> guards = new LinkedHashMap<>();
+
+    // A built filter and the highest id it answers for, swapped together.
+    private record Built(IdBloomFilter filter, long coveredUpTo) {
+    }
+
+    private static class Guard {
+        final String table;
+        volatile Built built;
+        volatile IdBloomFilter building;
+        final AtomicLong checks = new AtomicLong();
+        final AtomicLong rejected = new AtomicLong();
+        final AtomicLong falsePositives = new AtomicLong();
+        volatile LocalDateTime lastRebuildAt;
+        volatile long lastRebuildMillis;
+
+        Guard(String table) {
+            this.table = table;
+        }
+    }
+
+    public IdExistenceFilter() {
+        guards.put(NegativeLookupCache.PRODUCT, new Guard("product"));
+        guards.put(NegativeLookupCache.USER, new Guard("user"));
+    }
+
+    @Override
+    public String getName() {
+        return "rebuild-id-filters";
+    }
+
+    @Override
+    public boolean isClusterSingleton() {
+        return false;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Override
+    public void run() {
+        if(!enabled){
+            return;
+        }
+        for(Map.Entry<String, Guard> entry : guards.entrySet()){
+            try {
+                rebuild(entry.getKey(), entry.getValue());
+            }
+            catch (Exception e){
+                // Keep the previous filter, worst case requests go to the DB.
+                LOGGER.error("Rebuild of {} id filter failed", entry.getKey(), e);
+            }
+        }
+    }
+
+    private void rebuild(String type, Guard guard){
+        long start = System.currentTimeMillis();
+        Long rows = jdbcTemplate.queryForObject("select count(*) from " + guard.table, new MapSqlParameterSource(), Long.class);
+        IdBloomFilter next = new IdBloomFilter((long) Math.max(1024, (rows == null ? 0 : rows) * growthFactor), falsePositiveRate);
+        guard.building = next;
+        try {
+            String sql = "select id from " + guard.table + " where id > :after order by id limit :limit";
+            long after = 0;
+            while(true){
+                List<Long> ids = jdbcTemplate.queryForList(sql,
+                        new MapSqlParameterSource("after", after).addValue("limit", scanPageSize), Long.class);
+                for(Long id : ids){
+                    next.add(id);
+                }
+                if(!ids.isEmpty()){
+                    after = ids.get(ids.size() - 1);
+                }
+                if(ids.size() < scanPageSize){
+                    break;
+                }
+            }
+            guard.built = new Built(next, after - inFlightIdMargin);
+        }
+        finally {
+            guard.building = null;
+        }
+        guard.lastRebuildAt = LocalDateTime.now();
+        guard.lastRebuildMillis = System.currentTimeMillis() - start;
+        LOGGER.info("Rebuilt {} id filter: {} ids up to {}, {} bits, {} hashes, estimated fpr {} in {} ms", type,
+                next.getInsertions(), guard.built.coveredUpTo(), next.getBitCount(), next.getHashFunctions(),
+                next.getEstimatedFalsePositiveRate(), guard.lastRebuildMillis);
+    }
+
+    // false: the id does not exist. true: it may exist, ask the DB.
+    public boolean mightExist(String type, Long id){
+        Guard guard = guards.get(type);
+        Built built = guard == null ? null : guard.built;
+        if(built == null || id == null || id > built.coveredUpTo()){
+            return true;
+        }
+        guard.checks.incrementAndGet();
+        if(built.filter().mightContain(id)){
+            return true;
+        }
+        guard.rejected.incrementAndGet();
+        return false;
+    }
+
+    /*
+    true when the last rebuild scanned past this id, so a miss on it is settled: a new row will
+    not get it (identity ids only grow). Above that, a miss may just be a row another node has
+    not committed yet.
+     */
+    public boolean isCovered(String type, Long id){
+        Guard guard = guards.get(type);
+        Built built = guard == null ? null : guard.built;
+        return built != null && id != null && id <= built.coveredUpTo();
+    }
+
+    // The filter said "maybe" and the DB had no row.
+    public void recordFalsePositive(String type, Long id){
+        if(isCovered(type, id)){
+            guards.get(type).falsePositives.incrementAndGet();
+        }
+    }
+
+    public void added(String type, Long id){
+        Guard guard = guards.get(type);
+        if(guard == null || id == null){
+            return;
+        }
+        Built built = guard.built;
+        if(built != null){
+            built.filter().add(id);
+        }
+        IdBloomFilter building = guard.building;
+        if(building != null){
+            building.add(id);
+        }
+    }
+
+    public List<IdFilterStatsDto> getStats(){
+        List<IdFilterStatsDto> stats = new ArrayList<>();
+        guards.forEach((type, guard) -> {
+            IdFilterStatsDto dto = new IdFilterStatsDto();
+            Built built = guard.built;
+            IdBloomFilter filter = built == null ? null : built.filter();
+            dto.setType(type);
+            dto.setReady(filter != null);
+            if(filter != null){
+                dto.setExpectedInsertions(filter.getExpectedInsertions());
+                dto.setInsertions(filter.getInsertions());
+                dto.setBitCount(filter.getBitCount());
+                dto.setHashFunctions(filter.getHashFunctions());
+                dto.setEstimatedFalsePositiveRate(filter.getEstimatedFalsePositiveRate());
+                dto.setCoveredUpToId(built.coveredUpTo());
+            }
+            long rejected = guard.rejected.get();
+            long falsePositives = guard.falsePositives.get();
+            dto.setChecks(guard.checks.get());
+            dto.setRejected(rejected);
+            dto.setFalsePositives(falsePositives);
+            // Share of absent ids the filter let through.
+            dto.setObservedFalsePositiveRate(rejected + falsePositives == 0 ? 0.0 : (double) falsePositives / (rejected + falsePositives));
+            dto.setLastRebuildAt(guard.lastRebuildAt);
+            dto.setLastRebuildMillis(guard.lastRebuildMillis);
+            stats.add(dto);
+        });
+        return stats;
+    }
+}
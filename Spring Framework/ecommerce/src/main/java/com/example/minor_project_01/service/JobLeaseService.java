@@ -0,0 +1,184 @@
+package com.example.minor_project_01.service;
+
+import com.example.minor_project_01.exception.LeaseLostException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/*
+JDBC lease/lock service shared by all instances through the job_lease table.
+
+- tryAcquire takes a lease when it is free, expired or already ours, with one conditional
+  UPDATE (or INSERT for a new name), so two instances can never both win.
+- Every change of owner increases the fencing token. Work done under a lease calls
+  assertStillHeld inside its own transaction; it locks the lease row and fails if the
+  token moved on, so a paused or partitioned ex-owner cannot commit stale writes.
+- startRenewal keeps a lease alive every ttl/3 while long work runs. A dead instance stops
+  renewing and its lease can be taken after ttl (fast failover with a short ttl).
+- All times are database times, so clock differences between instances do not matter.
+ */
+@Service
+public class JobLeaseService {
+
+    private static Logger LOGGER = LoggerFactory.getLogger(JobLeaseService.class);
+
+    private static final String LEASE_END = "timestampadd(microsecond, :ttlMicros, localtimestamp(3))";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final String nodeId;
+    private final ScheduledExecutorService renewer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "lease-renewer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public JobLeaseService(NamedParameterJdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                           @Value("${app.node-id:}") String nodeId) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.nodeId = nodeId == null || nodeId.isBlank() ? defaultNodeId() : nodeId;
+    }
+
+    private static String defaultNodeId(){
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "unknown";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    public static class Lease {
+        private final String name;
+        private final long fencingToken;
+        private final Duration ttl;
+        private volatile boolean lost;
+        private volatile ScheduledFuture<?> renewal;
+
+        private Lease(String name, long fencingToken, Duration ttl) {
+            this.name = name;
+            this.fencingToken = fencingToken;
+            this.ttl = ttl;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getFencingToken() {
+            return fencingToken;
+        }
+
+        public boolean isLost() {
+            return lost;
+        }
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    // Returns the lease, or null if another instance holds it.
+    public Lease tryAcquire(String name, Duration ttl){
+        MapSqlParameterSource params = params(name).addValue("ttlMicros", ttl.toNanos() / 1000);
+        return transactionTemplate.execute(status -> {
+            // fencing_token is assigned first: MySQL evaluates SET left to right.
+            int updated = jdbcTemplate.update("update job_lease set "
+                    + "fencing_token = case when owner = :owner and lease_until >= localtimestamp(3) "
+                    + "then fencing_token else coalesce(fencing_token, 0) + 1 end, "
+                    + "owner = :owner, lease_until = " + LEASE_END + " "
+                    + "where job_name = :name and (lease_until < localtimestamp(3) or owner = :owner)", params);
+            if(updated == 0){
+                try {
+                    jdbcTemplate.update("insert into job_lease (job_name, owner, lease_until, fencing_token) "
+                            + "values (:name, :owner, " + LEASE_END + ", 1)", params);
+                } catch (DuplicateKeyException e) {
+                    // Someone else holds a live lease.
+                    return null;
+                }
+            }
+            List<Long> tokens = jdbcTemplate.queryForList(
+                    "select fencing_token from job_lease where job_name = :name and owner = :owner", params, Long.class);
+            return tokens.isEmpty() ? null : new Lease(name, tokens.get(0), ttl);
+        });
+    }
+
+    // Extends the lease if we still own it with the same token, otherwise marks it lost.
+    public boolean renew(Lease lease){
+        if(lease.lost){
+            return false;
+        }
+        int updated = jdbcTemplate.update("update job_lease set lease_until = " + LEASE_END + " "
+                        + "where job_name = :name and owner = :owner and fencing_token = :token "
+                        + "and lease_until >= localtimestamp(3)",
+                params(lease.name).addValue("token", lease.fencingToken).addValue("ttlMicros", lease.ttl.toNanos() / 1000));
+        if(updated == 0){
+            lease.lost = true;
+            LOGGER.warn("Lease {} (token {}) lost", lease.name, lease.fencingToken);
+        }
+        return updated == 1;
+    }
+
+    /*
+    Call inside the transaction that does the guarded writes. Locks the lease row until
+    that transaction ends, so the lease cannot change hands before the writes commit.
+     */
+    public void assertStillHeld(Lease lease){
+        List<Long> tokens = jdbcTemplate.queryForList("select fencing_token from job_lease "
+                        + "where job_name = :name and owner = :owner and lease_until >= localtimestamp(3) for update",
+                params(lease.name), Long.class);
+        if(tokens.isEmpty() || tokens.get(0) != lease.fencingToken){
+            lease.lost = true;
+            throw new LeaseLostException("Lease " + lease.name + " with token " + lease.fencingToken + " is no longer held");
+        }
+    }
+
+    public void startRenewal(Lease lease){
+        long period = Math.max(1, lease.ttl.toMillis() / 3);
+        lease.renewal = renewer.scheduleAtFixedRate(() -> {
+            try {
+                if(!renew(lease)){
+                    lease.renewal.cancel(false);
+                }
+            } catch (RuntimeException e) {
+                LOGGER.warn("Could not renew lease {}: {}", lease.name, e.getMessage());
+            }
+        }, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    public void release(Lease lease){
+        if(lease.renewal != null){
+            lease.renewal.cancel(false);
+        }
+        jdbcTemplate.update("update job_lease set lease_until = localtimestamp(3) "
+                        + "where job_name = :name and owner = :owner and fencing_token = :token",
+                params(lease.name).addValue("token", lease.fencingToken));
+    }
+
+    private MapSqlParameterSource params(String name){
+        return new MapSqlParameterSource("name", name).addValue("owner", nodeId);
+    }
+
+    @PreDestroy
+    public void shutdown(){
+        renewer.shutdownNow();
+    }
+}
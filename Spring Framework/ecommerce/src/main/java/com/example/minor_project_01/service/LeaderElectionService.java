@@ -0,0 +1,63 @@
+package com.example.minor_project_01.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+/*
+Elects one leader among the running instances with the "leader" lease.
+Every instance calls elect() every check-millis: the leader renews, the others try to take
+over. If the leader dies, another instance becomes leader within ttl + check-millis.
+ */
+@Service
+public class LeaderElectionService {
+
+    private static Logger LOGGER = LoggerFactory.getLogger(LeaderElectionService.class);
+
+    private static final String LEADER_LEASE = "leader";
+
+    @Autowired
+    private JobLeaseService jobLeaseService;
+
+    @Value("${app.cluster.leader.ttl-millis:10000}")
+    private long ttlMillis;
+
+    private volatile JobLeaseService.Lease lease;
+
+    @Scheduled(fixedDelayString = "${app.cluster.leader.check-millis:3000}")
+    public void elect(){
+        try {
+            JobLeaseService.Lease current = lease;
+            if(current != null && jobLeaseService.renew(current)){
+                return;
+            }
+            JobLeaseService.Lease acquired = jobLeaseService.tryAcquire(LEADER_LEASE, Duration.ofMillis(ttlMillis));
+            if(acquired != null && current == null){
+                LOGGER.info("Node {} is now leader (token {})", jobLeaseService.getNodeId(), acquired.getFencingToken());
+            }
+            else if(acquired == null && current != null){
+                LOGGER.info("Node {} lost leadership", jobLeaseService.getNodeId());
+            }
+            lease = acquired;
+        } catch (RuntimeException e) {
+            // Can't reach the lease table, so we can't prove we are still leader.
+            LOGGER.warn("Leader election failed: {}", e.getMessage());
+            lease = null;
+        }
+    }
+
+    public boolean isLeader(){
+        JobLeaseService.Lease current = lease;
+        return current != null && !current.isLost();
+    }
+
+    // Null when this instance is not the leader.
+    public JobLeaseService.Lease getLeaderLease(){
+        return isLeader() ? lease : null;
+    }
+}
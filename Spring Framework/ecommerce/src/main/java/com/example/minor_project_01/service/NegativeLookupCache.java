@@ -0,0 +1,95 @@
+package com.example.minor_project_01.service;
+
+import com.example.minor_project_01.dto.ProductChangeEvent;
+import com.example.minor_project_01.exception.NotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/*
+Remembers ids that were just looked up and did not exist, for ttl-millis, so repeated
+probes for the same missing id are answered without a database round trip.
+Created products (via the change feed event) and created users are forgotten at once.
+Ids IdExistenceFilter knows to be absent are rejected before the map or the DB is consulted.
+
+Only ids the last filter rebuild scanned past are remembered. Other nodes (or imports outside
+the app) create rows this node never hears about, and those always get new, higher ids, so a
+miss above the scanned range is never cached. With the filter disabled nothing is cached.
+ */
+@Service
+public class NegativeLookupCache {
+
+    public static final String PRODUCT = "product";
+    public static final String USER = "user";
+
+    @Autowired
+    private IdExistenceFilter idExistenceFilter;
+
+    @Value("${app.negative-cache.ttl-millis:30000}")
+    private long ttlMillis;
+
+    @Value("${app.negative-cache.max-entries:100000}")
+    private int maxEntries;
+
+    private final Map<String, Long> missingUntil = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+
+    public <T> T findOrThrow(String type, Long id, Function<Long, Optional<T>> finder, String message) throws NotFoundException {
+        if(!idExistenceFilter.mightExist(type, id)){
+            throw new NotFoundException(message);
+        }
+        String key = type + ":" + id;
+        Long until = missingUntil.get(key);
+        if(until != null){
+            if(until >= System.currentTimeMillis()){
+                hits.incrementAndGet();
+                throw new NotFoundException(message);
+            }
+            missingUntil.remove(key, until);
+        }
+        Optional<T> found = finder.apply(id);
+        if(found.isEmpty()){
+            idExistenceFilter.recordFalsePositive(type, id);
+            if(idExistenceFilter.isCovered(type, id)){
+                markMissing(key);
+            }
+            throw new NotFoundException(message);
+        }
+        return found.get();
+    }
+
+    private void markMissing(String key){
+        long now = System.currentTimeMillis();
+        if(missingUntil.size() >= maxEntries){
+            missingUntil.values().removeIf(until -> until < now);
+            if(missingUntil.size() >= maxEntries){
+                missingUntil.clear();
+            }
+        }
+        missingUntil.put(key, now + ttlMillis);
+    }
+
+    // A row with this id was just created.
+    public void created(String type, Long id){
+        idExistenceFilter.added(type, id);
+        missingUntil.remove(type + ":" + id);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChange(ProductChangeEvent event){
+        if(event.getType() == ProductChangeEvent.Type.CREATED){
+            created(PRODUCT, event.getProductId());
+        }
+    }
+
+    public long getHits(){
+        return hits.get();
+    }
+}
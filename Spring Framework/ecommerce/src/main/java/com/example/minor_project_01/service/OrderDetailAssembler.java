@@ -0,0 +1,254 @@
+package com.example.minor_project_01.service;
+
+import com.example.minor_project_01.dto.OrderDetailDto;
+import com.example.minor_project_01.dto.OrderItemDto;
+import com.example.minor_project_01.exception.NotFoundException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+Builds order detail (lines with product, company, category and stock) without walking lazy associations.
+- One query for the order and its lines (product, company and category ids joined in).
+- Then one IN query per entity type (product, company, category), split at maxIdsPerQuery ids.
+- With parallelMinLines or more lines those batches run concurrently on a bounded pool,
+  so latency is the slowest batch, not the sum. Smaller orders run them on the caller thread.
+- Everything must finish within deadline-millis. Batches still running then are cancelled, their
+  fields stay null and the response has complete = false; the order's own values (quantity, price) are always there.
+- When the pool's queue is full the batches it rejects run on the caller thread, one at a time and
+  only while the deadline has not passed.
+Reads go through plain JDBC, soft deleted products still referenced by the order are shown.
+ */
+@Service
+public class OrderDetailAssembler {
+
+    private static Logger LOGGER = LoggerFactory.getLogger(OrderDetailAssembler.class);
+
+    private static final String SELECT_LINES = """
+            select o.id as order_id, o.status, o.total_amount,
+                   oi.id, oi.quantity, oi.price, oi.product_id, p.company_id, p.category_id
+            from customer_order o
+            left join order_item oi on oi.order_id = o.id
+            left join product p on p.id = oi.product_id
+            where o.id = :orderId
+            order by oi.id""";
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Value("${app.order-detail.workers:4}")
+    private int workers;
+
+    @Value("${app.order-detail.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${app.order-detail.parallel-min-lines:20}")
+    private int parallelMinLines;
+
+    @Value("${app.order-detail.max-ids-per-query:500}")
+    private int maxIdsPerQuery;
+
+    @Value("${app.order-detail.deadline-millis:2000}")
+    private long deadlineMillis;
+
+    private ThreadPoolExecutor executor;
+
+    private static class Line {
+        Long id;
+        Integer quantity;
+        Double price;
+        Long productId;
+        Long companyId;
+        Long categoryId;
+    }
+
+    @PostConstruct
+    public void init(){
+        AtomicInteger threadCount = new AtomicInteger();
+        // Queue full: submit throws and runConcurrently falls back to runSequentially, which keeps the deadline.
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "order-detail-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public OrderDetailDto assemble(Long orderId) throws NotFoundException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMillis);
+        OrderDetailDto orderDetailDto = new OrderDetailDto();
+        List<Line> lines = new ArrayList<>();
+        jdbcTemplate.query(SELECT_LINES, new MapSqlParameterSource("orderId", orderId), rs -> {
+            orderDetailDto.setOrderId(rs.getLong("order_id"));
+            orderDetailDto.setStatus(rs.getString("status"));
+            orderDetailDto.setOrderTotalPrice(rs.getDouble("total_amount"));
+            long itemId = rs.getLong("id");
+            if(!rs.wasNull()){
+                Line line = new Line();
+                line.id = itemId;
+                line.quantity = rs.getInt("quantity");
+                line.price = rs.getDouble("price");
+                line.productId = rs.getObject("product_id", Long.class);
+                line.companyId = rs.getObject("company_id", Long.class);
+                line.categoryId = rs.getObject("category_id", Long.class);
+                lines.add(line);
+            }
+        });
+        if(orderDetailDto.getOrderId() == null){
+            throw new NotFoundException("Order Does not exist");
+        }
+
+        Set<Long> productIds = new LinkedHashSet<>();
+        Set<Long> companyIds = new LinkedHashSet<>();
+        Set<Long> categoryIds = new LinkedHashSet<>();
+        for(Line line : lines){
+            addIfPresent(productIds, line.productId);
+            addIfPresent(companyIds, line.companyId);
+            addIfPresent(categoryIds, line.categoryId);
+        }
+
+        Map<Long, Map<String, Object>> products = new ConcurrentHashMap<>();
+        Map<Long, String> companyNames = new ConcurrentHashMap<>();
+        Map<Long, String> categoryNames = new ConcurrentHashMap<>();
+        List<Runnable> batches = new ArrayList<>();
+        for(List<Long> ids : chunks(productIds)){
+            batches.add(() -> jdbcTemplate.queryForList(
+                    "select id, name, stock, active from product where id in (:ids)",
+                    new MapSqlParameterSource("ids", ids))
+                    .forEach(row -> products.put(((Number) row.get("id")).longValue(), row)));
+        }
+        for(List<Long> ids : chunks(companyIds)){
+            batches.add(() -> loadNames("company", ids, companyNames));
+        }
+        for(List<Long> ids : chunks(categoryIds)){
+            batches.add(() -> loadNames("category", ids, categoryNames));
+        }
+
+        boolean complete = lines.size() >= parallelMinLines && batches.size() > 1
+                ? runConcurrently(batches, deadline, orderId)
+                : runSequentially(batches, deadline, orderId);
+
+        List<OrderItemDto> items = new ArrayList<>(lines.size());
+        for(Line line : lines){
+            Map<String, Object> product = line.productId == null ? null : products.get(line.productId);
+            items.add(OrderItemDto.builder()
+                    .id(line.id)
+                    .quantity(line.quantity)
+                    .price(line.price)
+                    .totalPrice(line.price * line.quantity)
+                    .productId(line.productId)
+                    .productName(product == null ? null : (String) product.get("name"))
+                    .availableStock(product == null ? null : toInteger(product.get("stock")))
+                    .productActive(product == null ? null : toBoolean(product.get("active")))
+                    .companyId(line.companyId)
+                    .companyName(line.companyId == null ? null : companyNames.get(line.companyId))
+                    .categoryName(line.categoryId == null ? null : categoryNames.get(line.categoryId))
+                    .build());
+        }
+        orderDetailDto.setOrderItems(items);
+        orderDetailDto.setComplete(complete);
+        return orderDetailDto;
+    }
+
+    private boolean runSequentially(List<Runnable> batches, long deadline, Long orderId){
+        for(Runnable batch : batches){
+            if(System.nanoTime() > deadline){
+                LOGGER.warn("Order {} detail passed its deadline, returning partial lines", orderId);
+                return false;
+            }
+            batch.run();
+        }
+        return true;
+    }
+
+    private boolean runConcurrently(List<Runnable> batches, long deadline, Long orderId){
+        List<Future<?>> futures = new ArrayList<>(batches.size());
+        boolean complete = true;
+        for(int i = 0; i < batches.size(); i++){
+            try {
+                futures.add(executor.submit(batches.get(i)));
+            }
+            catch (RejectedExecutionException e){
+                complete = runSequentially(batches.subList(i, batches.size()), deadline, orderId);
+                break;
+            }
+        }
+        for(Future<?> future : futures){
+            try {
+                future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            }
+            catch (TimeoutException e){
+                complete = false;
+                future.cancel(true);
+            }
+            catch (InterruptedException e){
+                Thread.currentThread().interrupt();
+                complete = false;
+                future.cancel(true);
+            }
+            catch (ExecutionException e){
+                throw new IllegalStateException("Order " + orderId + " detail lookup failed", e.getCause());
+            }
+        }
+        if(!complete){
+            LOGGER.warn("Order {} detail passed its deadline, returning partial lines", orderId);
+        }
+        return complete;
+    }
+
+    private void loadNames(String table, List<Long> ids, Map<Long, String> names){
+        jdbcTemplate.query("select id, name from " + table + " where id in (:ids)",
+                new MapSqlParameterSource("ids", ids),
+                rs -> { names.put(rs.getLong("id"), rs.getString("name")); });
+    }
+
+    private List<List<Long>> chunks(Set<Long> ids){
+        List<List<Long>> chunks = new ArrayList<>();
+        List<Long> current = new ArrayList<>();
+        for(Long id : ids){
+            current.add(id);
+            if(current.size() == maxIdsPerQuery){
+                chunks.add(current);
+                current = new ArrayList<>();
+            }
+        }
+        if(!current.isEmpty()){
+            chunks.add(current);
+        }
+        return chunks;
+    }
+
+    private static void addIfPresent(Set<Long> ids, Long id){
+        if(id != null){
+            ids.add(id);
+        }
+    }
+
+    private static Integer toInteger(Object value){
+        return value == null ? null : ((Number) value).intValue();
+    }
+
+    private static Boolean toBoolean(Object value){
+        if(value == null){
+            return null;
+        }
+        return value instanceof Boolean ? (Boolean) value : ((Number) value).intValue() != 0;
+    }
+
+    @PreDestroy
+    public void shutdown(){
+        executor.shutdownNow();
+    }
+}
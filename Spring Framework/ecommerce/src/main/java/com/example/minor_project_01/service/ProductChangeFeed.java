@@ -0,0 +1,308 @@
+package com.example.minor_project_01.service;
+
+import com.example.minor_project_01.dto.ProductChangeEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+/*
+Ordered, durable feed of product changes for caches, search indexes and analytics.
+
+- Services publish ProductChangeEvent through ApplicationEventPublisher; the event is appended
+  only after the transaction commits (or immediately when there is no transaction).
+- Every event gets the next offset and is written as one line to <dir>/product-changes.log,
+  so the feed survives restarts. The newest events are also kept in memory for fast tailing.
+- Consumers either poll(fromOffset, max) or subscribe(name, batchSize, listener). A subscription
+  receives batches in offset order and its committed offset is stored in <dir>/<name>.offset after
+  each successful batch (at-least-once delivery).
+ */
+@Service
+public class ProductChangeFeed {
+
+    private static Logger LOGGER = LoggerFactory.getLogger(ProductChangeFeed.class);
+
+    private static final int INDEX_INTERVAL = 1000;
+
+    @Value("${app.catalog.feed.dir:/tmp/catalog-feed}")
+    private String feedDir;
+
+    @Value("${app.catalog.feed.memory-events:10000}")
+    private int memoryEvents;
+
+    @Value("${app.catalog.feed.poll-millis:200}")
+    private long pollMillis;
+
+    private Path logFile;
+    private BufferedWriter writer;
+    private long nextOffset = 0;
+    // Byte position in the log of every INDEX_INTERVAL-th offset, used to seek for old offsets.
+    private final List<Long> sparseIndex = new ArrayList<>();
+    private long bytesWritten = 0;
+    private final Deque<ProductChangeEvent> recent = new ArrayDeque<>();
+
+    private final Map<String, Subscription> subscriptions = new ConcurrentHashMap<>();
+    private ScheduledExecutorService dispatcher;
+
+    @PostConstruct
+    public void open() throws IOException {
+        Path dir = Path.of(feedDir);
+        Files.createDirectories(dir);
+        logFile = dir.resolve("product-changes.log");
+        if(Files.exists(logFile)){
+            recover();
+        }
+        writer = Files.newBufferedWriter(logFile, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        dispatcher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "product-change-feed");
+            thread.setDaemon(true);
+            return thread;
+        });
+        LOGGER.info("Product change feed opened at {}, next offset {}", logFile, nextOffset);
+    }
+
+    /*
+    Rebuilds the offset, sparse index and in-memory tail from the log. Positions are counted
+    in raw bytes so they match what readFromLog seeks to. A last line without its newline was
+    torn by a crash mid-append and is cut off, so the next append starts on a fresh line.
+     */
+    private void recover() throws IOException {
+        long lineStart = 0;
+        long position = 0;
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(logFile))) {
+            int b;
+            while ((b = in.read()) != -1) {
+                position++;
+                if(b != '\n'){
+                    line.write(b);
+                    continue;
+                }
+                ProductChangeEvent event = parseLogLine(line.toString(StandardCharsets.UTF_8));
+                line.reset();
+                if(event != null){
+                    if(event.getOffset() % INDEX_INTERVAL == 0){
+                        sparseIndex.add(lineStart);
+                    }
+                    remember(event);
+                    nextOffset = event.getOffset() + 1;
+                }
+                lineStart = position;
+            }
+        }
+        if(lineStart < position){
+            LOGGER.warn("Dropping {} bytes of a torn last line in {}", position - lineStart, logFile);
+            try (FileChannel channel = FileChannel.open(logFile, StandardOpenOption.WRITE)) {
+                channel.truncate(lineStart);
+            }
+        }
+        bytesWritten = lineStart;
+    }
+
+    // Null for blank lines and lines that are not an event, which are skipped rather than failing startup.
+    private static ProductChangeEvent parseLogLine(String line){
+        if(line.isBlank()){
+            return null;
+        }
+        try {
+            return ProductChangeEvent.fromLogLine(line.trim());
+        } catch (RuntimeException e) {
+            LOGGER.warn("Skipping unreadable product change feed line: {}", line);
+            return null;
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChange(ProductChangeEvent event){
+        append(event);
+    }
+
+    public synchronized long append(ProductChangeEvent event){
+        event.setOffset(nextOffset);
+        if(nextOffset % INDEX_INTERVAL == 0){
+            sparseIndex.add(bytesWritten);
+        }
+        String line = event.toLogLine();
+        try {
+            writer.write(line);
+            writer.write('\n');
+            writer.flush();
+        } catch (IOException e) {
+            // Keep serving from memory, consumers can still catch up while the disk is fixed.
+            LOGGER.error("Could not write product change {} to feed log", nextOffset, e);
+        }
+        bytesWritten += line.getBytes(StandardCharsets.UTF_8).length + 1;
+        remember(event);
+        return nextOffset++;
+    }
+
+    private void remember(ProductChangeEvent event){
+        recent.addLast(event);
+        while (recent.size() > memoryEvents) {
+            recent.removeFirst();
+        }
+    }
+
+    public synchronized long getNextOffset(){
+        return nextOffset;
+    }
+
+    /*
+    Returns up to max events starting at fromOffset, in order.
+    Served from memory when possible, otherwise read from the log file.
+     */
+    public List<ProductChangeEvent> poll(long fromOffset, int max){
+        long firstInMemory;
+        List<ProductChangeEvent> result = new ArrayList<>();
+        long seekPosition = 0;
+        long seekOffset = 0;
+        synchronized (this) {
+            if(fromOffset >= nextOffset || max <= 0){
+                return result;
+            }
+            firstInMemory = recent.isEmpty() ? nextOffset : recent.peekFirst().getOffset();
+            if(fromOffset >= firstInMemory){
+                for(ProductChangeEvent event : recent){
+                    if(event.getOffset() >= fromOffset){
+                        result.add(event);
+                        if(result.size() == max){
+                            break;
+                        }
+                    }
+                }
+                return result;
+            }
+            int indexSlot = (int) Math.min(fromOffset / INDEX_INTERVAL, sparseIndex.size() - 1);
+            if(indexSlot >= 0){
+                seekPosition = sparseIndex.get(indexSlot);
+                seekOffset = (long) indexSlot * INDEX_INTERVAL;
+            }
+        }
+        return readFromLog(fromOffset, max, seekPosition, seekOffset);
+    }
+
+    private List<ProductChangeEvent> readFromLog(long fromOffset, int max, long seekPosition, long seekOffset){
+        List<ProductChangeEvent> result = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(logFile, StandardOpenOption.READ)) {
+            channel.position(seekPosition);
+            BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(Channels.newInputStream(channel), StandardCharsets.UTF_8));
+            String line;
+            while (result.size() < max && (line = reader.readLine()) != null) {
+                ProductChangeEvent event = parseLogLine(line);
+                if(event != null && event.getOffset() >= fromOffset){
+                    result.add(event);
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.error("Could not read product change feed from offset {} (seek offset {})", fromOffset, seekOffset, e);
+        }
+        return result;
+    }
+
+    /*
+    Registers a named consumer. Delivery resumes from the consumer's committed offset,
+    or from startOffset when the consumer has never committed. Returns the existing
+    subscription if the name is already registered.
+     */
+    public Subscription subscribe(String name, long startOffset, int batchSize, Consumer<List<ProductChangeEvent>> listener){
+        return subscriptions.computeIfAbsent(name, key -> {
+            long committed = readCommittedOffset(key, startOffset);
+            Subscription subscription = new Subscription(key, committed, batchSize, listener);
+            subscription.future = dispatcher.scheduleWithFixedDelay(subscription::dispatch, 0, pollMillis, TimeUnit.MILLISECONDS);
+            return subscription;
+        });
+    }
+
+    private long readCommittedOffset(String name, long defaultOffset){
+        Path offsetFile = Path.of(feedDir).resolve(name + ".offset");
+        try {
+            if(Files.exists(offsetFile)){
+                return Long.parseLong(Files.readString(offsetFile).trim());
+            }
+        } catch (IOException | NumberFormatException e) {
+            LOGGER.warn("Could not read committed offset for {}, starting at {}", name, defaultOffset);
+        }
+        return defaultOffset;
+    }
+
+    private void commitOffset(String name, long offset){
+        Path offsetFile = Path.of(feedDir).resolve(name + ".offset");
+        Path tmp = Path.of(feedDir).resolve(name + ".offset.tmp");
+        try {
+            Files.writeString(tmp, Long.toString(offset));
+            Files.move(tmp, offsetFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOGGER.warn("Could not commit offset {} for {}", offset, name, e);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        if(dispatcher != null){
+            dispatcher.shutdownNow();
+        }
+        if(writer != null){
+            writer.close();
+        }
+    }
+
+    public class Subscription {
+        private final String name;
+        private final int batchSize;
+        private final Consumer<List<ProductChangeEvent>> listener;
+        private volatile long offset;
+        private ScheduledFuture<?> future;
+
+        private Subscription(String name, long offset, int batchSize, Consumer<List<ProductChangeEvent>> listener) {
+            this.name = name;
+            this.offset = offset;
+            this.batchSize = batchSize;
+            this.listener = listener;
+        }
+
+        private void dispatch(){
+            try {
+                List<ProductChangeEvent> batch;
+                while (!(batch = poll(offset, batchSize)).isEmpty()) {
+                    listener.accept(batch);
+                    offset = batch.get(batch.size() - 1).getOffset() + 1;
+                    commitOffset(name, offset);
+                }
+            } catch (RuntimeException e) {
+                // Batch is redelivered on the next poll.
+                LOGGER.error("Consumer {} failed at offset {}", name, offset, e);
+            }
+        }
+
+        public long getOffset() {
+            return offset;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void close(){
+            future.cancel(false);
+            subscriptions.remove(name, this);
+        }
+    }
+}
@@ -0,0 +1,339 @@
+package com.example.minor_project_01.service;
+
+import com.example.minor_project_01.dto.ProductChangeEvent;
+import com.example.minor_project_01.entity.Product;
+import com.example.minor_project_01.exception.IndexNotReadyException;
+import com.example.minor_project_01.repo.ProductRepo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/*
+In-memory columnar index over the catalog for faceted browsing.
+Every product gets a slot; attributes live in arrays indexed by slot and every facet value
+(category, company, price bucket, in-stock) has a BitSet of slots. Facet counts are BitSet
+AND + cardinality, no GROUP BY against the database.
+
+Built once at startup with a keyset scan, then kept current from ProductChangeFeed.
+Only active, non deleted products are visible.
+ */
+@Service
+public class ProductFacetIndex {
+
+    private static Logger LOGGER = LoggerFactory.getLogger(ProductFacetIndex.class);
+
+    private static final int LOAD_PAGE_SIZE = 1000;
+
+    @Autowired
+    private ProductRepo productRepo;
+
+    @Autowired
+    private ProductChangeFeed productChangeFeed;
+
+    @Value("${app.catalog.facets.price-buckets:0,500,1000,5000,10000,50000}")
+    private double[] priceBucketBounds;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, Integer> slotByProductId = new HashMap<>();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+    private long[] productIds = new long[1024];
+    private double[] prices = new double[1024];
+    private long[] categoryIds = new long[1024];
+    private long[] companyIds = new long[1024];
+    private int slotCount = 0;
+
+    private final BitSet visible = new BitSet();
+    private final BitSet inStock = new BitSet();
+    private final Map<Long, BitSet> byCategory = new HashMap<>();
+    private final Map<Long, BitSet> byCompany = new HashMap<>();
+    private BitSet[] byPriceBucket;
+
+    private volatile boolean ready = false;
+    private long buildOffset;
+
+    public static class Query {
+        public Collection<Long> categoryIds;
+        public Collection<Long> companyIds;
+        public Double minPrice;
+        public Double maxPrice;
+        public Boolean inStock;
+    }
+
+    public static class Result {
+        public List<Long> pageProductIds;
+        public int totalMatches;
+        public Map<Long, Integer> categoryCounts;
+        public Map<Long, Integer> companyCounts;
+        public Map<String, Integer> priceBucketCounts;
+        public int inStockCount;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build(){
+        long started = System.currentTimeMillis();
+        // Events before this offset are already reflected in what we load below.
+        buildOffset = productChangeFeed.getNextOffset();
+        byPriceBucket = new BitSet[priceBucketBounds.length];
+        for(int i = 0; i < byPriceBucket.length; i++){
+            byPriceBucket[i] = new BitSet();
+        }
+        long lastId = 0;
+        int loaded = 0;
+        while (true) {
+            List<Product> page = productRepo.findByIdGreaterThanAndDeletedFalseOrderByIdAsc(lastId, PageRequest.of(0, LOAD_PAGE_SIZE));
+            if(page.isEmpty()){
+                break;
+            }
+            lock.writeLock().lock();
+            try {
+                for(Product product : page){
+                    upsert(product);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            loaded += page.size();
+            lastId = page.get(page.size() - 1).getId();
+        }
+        ready = true;
+        productChangeFeed.subscribe("product-facet-index", buildOffset, 500, this::apply);
+        LOGGER.info("Product facet index built with {} products in {} ms", loaded, System.currentTimeMillis() - started);
+    }
+
+    private void apply(List<ProductChangeEvent> events){
+        for(ProductChangeEvent event : events){
+            if(event.getOffset() < buildOffset){
+                continue;
+            }
+            switch (event.getType()) {
+                case DELETED -> {
+                    lock.writeLock().lock();
+                    try {
+                        remove(event.getProductId());
+                    } finally {
+                        lock.writeLock().unlock();
+                    }
+                }
+                case STOCK_CHANGED -> {
+                    lock.writeLock().lock();
+                    try {
+                        Integer slot = slotByProductId.get(event.getProductId());
+                        if(slot != null){
+                            inStock.set(slot, event.getStock() != null && event.getStock() > 0);
+                        }
+                    } finally {
+                        lock.writeLock().unlock();
+                    }
+                }
+                default -> {
+                    // CREATED / UPDATED: category, company and active are not in the event.
+                    Optional<Product> product = productRepo.findByIdAndDeletedFalse(event.getProductId());
+                    lock.writeLock().lock();
+                    try {
+                        if(product.isPresent()){
+                            upsert(product.get());
+                        }
+                        else {
+                            remove(event.getProductId());
+                        }
+                    } finally {
+                        lock.writeLock().unlock();
+                    }
+                }
+            }
+        }
+    }
+
+    // Caller holds the write lock.
+    private void upsert(Product product){
+        if(Boolean.FALSE.equals(product.getActive())){
+            remove(product.getId());
+            return;
+        }
+        Integer slot = slotByProductId.get(product.getId());
+        if(slot == null){
+            slot = freeSlots.isEmpty() ? slotCount++ : freeSlots.pop();
+            ensureCapacity(slot + 1);
+            slotByProductId.put(product.getId(), slot);
+        }
+        else {
+            clearBitmaps(slot);
+        }
+        double price = product.getPrice() == null ? 0 : product.getPrice();
+        productIds[slot] = product.getId();
+        prices[slot] = price;
+        categoryIds[slot] = product.getCategory() == null ? 0 : product.getCategory().getId();
+        companyIds[slot] = product.getCompany() == null ? 0 : product.getCompany().getId();
+
+        visible.set(slot);
+        inStock.set(slot, product.getStock() != null && product.getStock() > 0);
+        byCategory.computeIfAbsent(categoryIds[slot], id -> new BitSet()).set(slot);
+        byCompany.computeIfAbsent(companyIds[slot], id -> new BitSet()).set(slot);
+        byPriceBucket[priceBucket(price)].set(slot);
+    }
+
+    // Caller holds the write lock.
+    private void remove(Long productId){
+        Integer slot = slotByProductId.remove(productId);
+        if(slot == null){
+            return;
+        }
+        clearBitmaps(slot);
+        freeSlots.push(slot);
+    }
+
+    private void clearBitmaps(int slot){
+        visible.clear(slot);
+        inStock.clear(slot);
+        BitSet category = byCategory.get(categoryIds[slot]);
+        if(category != null){
+            category.clear(slot);
+        }
+        BitSet company = byCompany.get(companyIds[slot]);
+        if(company != null){
+            company.clear(slot);
+        }
+        byPriceBucket[priceBucket(prices[slot])].clear(slot);
+    }
+
+    private void ensureCapacity(int size){
+        if(size <= productIds.length){
+            return;
+        }
+        int newLength = Math.max(size, productIds.length * 2);
+        productIds = Arrays.copyOf(productIds, newLength);
+        prices = Arrays.copyOf(prices, newLength);
+        categoryIds = Arrays.copyOf(categoryIds, newLength);
+        companyIds = Arrays.copyOf(companyIds, newLength);
+    }
+
+    private int priceBucket(double price){
+        int bucket = 0;
+        for(int i = 1; i < priceBucketBounds.length; i++){
+            if(price >= priceBucketBounds[i]){
+                bucket = i;
+            }
+        }
+        return bucket;
+    }
+
+    private String bucketLabel(int bucket){
+        double from = priceBucketBounds[bucket];
+        return bucket + 1 < priceBucketBounds.length
+                ? (long) from + "-" + (long) priceBucketBounds[bucket + 1]
+                : (long) from + "+";
+    }
+
+    public boolean isReady(){
+        return ready;
+    }
+
+    public Result search(Query query, int pageNo, int pageSize){
+        if(!ready){
+            throw new IndexNotReadyException("Product index is still loading, retry shortly");
+        }
+        lock.readLock().lock();
+        try {
+            BitSet categoryFilter = union(byCategory, query.categoryIds);
+            BitSet companyFilter = union(byCompany, query.companyIds);
+            BitSet priceFilter = priceRange(query.minPrice, query.maxPrice);
+            BitSet stockFilter = Boolean.TRUE.equals(query.inStock) ? inStock : null;
+
+            Result result = new Result();
+            BitSet matches = intersect(categoryFilter, companyFilter, priceFilter, stockFilter);
+            result.totalMatches = matches.cardinality();
+
+            BitSet withoutCategory = intersect(null, companyFilter, priceFilter, stockFilter);
+            result.categoryCounts = new TreeMap<>();
+            for(Map.Entry<Long, BitSet> entry : byCategory.entrySet()){
+                int count = andCardinality(withoutCategory, entry.getValue());
+                if(count > 0){
+                    result.categoryCounts.put(entry.getKey(), count);
+                }
+            }
+            BitSet withoutCompany = intersect(categoryFilter, null, priceFilter, stockFilter);
+            result.companyCounts = new TreeMap<>();
+            for(Map.Entry<Long, BitSet> entry : byCompany.entrySet()){
+                int count = andCardinality(withoutCompany, entry.getValue());
+                if(count > 0){
+                    result.companyCounts.put(entry.getKey(), count);
+                }
+            }
+            BitSet withoutPrice = intersect(categoryFilter, companyFilter, null, stockFilter);
+            result.priceBucketCounts = new LinkedHashMap<>();
+            for(int i = 0; i < byPriceBucket.length; i++){
+                result.priceBucketCounts.put(bucketLabel(i), andCardinality(withoutPrice, byPriceBucket[i]));
+            }
+            BitSet withoutStock = intersect(categoryFilter, companyFilter, priceFilter, null);
+            result.inStockCount = andCardinality(withoutStock, inStock);
+
+            result.pageProductIds = new ArrayList<>(pageSize);
+            long skip = (long) pageNo * pageSize;
+            for(int slot = matches.nextSetBit(0); slot >= 0 && result.pageProductIds.size() < pageSize; slot = matches.nextSetBit(slot + 1)){
+                if(skip > 0){
+                    skip--;
+                    continue;
+                }
+                result.pageProductIds.add(productIds[slot]);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static BitSet union(Map<Long, BitSet> bitmaps, Collection<Long> keys){
+        if(keys == null || keys.isEmpty()){
+            return null;
+        }
+        BitSet result = new BitSet();
+        for(Long key : keys){
+            BitSet bitmap = bitmaps.get(key);
+            if(bitmap != null){
+                result.or(bitmap);
+            }
+        }
+        return result;
+    }
+
+    private BitSet priceRange(Double minPrice, Double maxPrice){
+        if(minPrice == null && maxPrice == null){
+            return null;
+        }
+        double min = minPrice == null ? Double.NEGATIVE_INFINITY : minPrice;
+        double max = maxPrice == null ? Double.POSITIVE_INFINITY : maxPrice;
+        // Column scan over the price array, only visible slots.
+        BitSet result = new BitSet();
+        for(int slot = visible.nextSetBit(0); slot >= 0; slot = visible.nextSetBit(slot + 1)){
+            if(prices[slot] >= min && prices[slot] <= max){
+                result.set(slot);
+            }
+        }
+        return result;
+    }
+
+    private BitSet intersect(BitSet... filters){
+        BitSet result = (BitSet) visible.clone();
+        for(BitSet filter : filters){
+            if(filter != null){
+                result.and(filter);
+            }
+        }
+        return result;
+    }
+
+    private static int andCardinality(BitSet a, BitSet b){
+        BitSet copy = (BitSet) a.clone();
+        copy.and(b);
+        return copy.cardinality();
+    }
+}
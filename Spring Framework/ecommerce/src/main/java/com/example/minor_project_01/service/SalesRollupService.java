@@ -0,0 +1,194 @@
+package com.example.minor_project_01.service;
+
+import com.example.minor_project_01.dto.SellerSalesStatsDto;
+import com.example.minor_project_01.entity.Order;
+import com.example.minor_project_01.entity.OrderItem;
+import com.example.minor_project_01.entity.OrderStatus;
+import com.example.minor_project_01.entity.Product;
+import com.example.minor_project_01.entity.SellerProductDailySales;
+import com.example.minor_project_01.repo.SellerProductDailySalesRepo;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/*
+Keeps seller_product_daily_sales up to date so seller stats never scan CustomerOrder/OrderItem.
+- recordStatusChange is called in the same transaction that moves an order to PLACED or DELIVERED.
+  Placed figures go to the day of Order.placedAt, delivered figures to the day of Order.deliveredAt.
+- startBackfill uses the same days, so a backfill followed by live updates adds up the same.
+  Orders from before placedAt/deliveredAt existed fall back to their last update.
+- Lines whose product has no company are skipped (no seller to report them to).
+- startBackfill rebuilds the table from order history in id-range chunks on a background thread.
+  Run it when the table is empty or during low traffic: orders changing status while it runs
+  may be counted twice.
+ */
+@Service
+public class SalesRollupService {
+
+    private static Logger LOGGER = LoggerFactory.getLogger(SalesRollupService.class);
+
+    // MySQL (8.0.19+) upsert, adds to an existing (product_id, sales_day) row.
+    private static final String UPSERT = """
+            insert into seller_product_daily_sales
+                (company_id, product_id, sales_day, placed_units, placed_revenue, delivered_units, delivered_revenue)
+            values (:companyId, :productId, :day, :placedUnits, :placedRevenue, :deliveredUnits, :deliveredRevenue) as new
+            on duplicate key update
+                placed_units = placed_units + new.placed_units,
+                placed_revenue = placed_revenue + new.placed_revenue,
+                delivered_units = delivered_units + new.delivered_units,
+                delivered_revenue = delivered_revenue + new.delivered_revenue""";
+
+    /*
+    Every status after DRAFT (except EXPIRED) means the order was placed at some point.
+    Placed lines are bucketed by placement day, delivered lines by delivery day, like recordStatusChange.
+     */
+    private static final String BACKFILL_CHUNK = """
+            select companyId, productId, day,
+                   sum(placedUnits) as placedUnits, sum(placedRevenue) as placedRevenue,
+                   sum(deliveredUnits) as deliveredUnits, sum(deliveredRevenue) as deliveredRevenue
+            from (
+                select p.company_id as companyId, oi.product_id as productId,
+                       date(coalesce(o.placed_at, o.updated_at, o.created_at)) as day,
+                       oi.quantity as placedUnits, oi.quantity * oi.price as placedRevenue,
+                       0 as deliveredUnits, 0.0 as deliveredRevenue
+                from customer_order o
+                join order_item oi on oi.order_id = o.id
+                join product p on p.id = oi.product_id
+                where o.id > :fromId and o.id <= :toId
+                  and o.status in ('PLACED', 'ACCEPTED', 'SHIPPED', 'DELIVERED')
+                union all
+                select p.company_id, oi.product_id,
+                       date(coalesce(o.delivered_at, o.updated_at, o.created_at)),
+                       0, 0.0,
+                       oi.quantity, oi.quantity * oi.price
+                from customer_order o
+                join order_item oi on oi.order_id = o.id
+                join product p on p.id = oi.product_id
+                where o.id > :fromId and o.id <= :toId
+                  and o.status = 'DELIVERED'
+            ) order_lines
+            where companyId is not null and day is not null
+            group by companyId, productId, day""";
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private SellerProductDailySalesRepo salesRepo;
+
+    @Value("${app.stats.backfill.chunk-size:1000}")
+    private int backfillChunkSize;
+
+    private final ExecutorService backfillExecutor = Executors.newSingleThreadExecutor();
+    private final AtomicBoolean backfillRunning = new AtomicBoolean(false);
+
+    public void recordStatusChange(Order order, OrderStatus newStatus){
+        if(newStatus != OrderStatus.PLACED && newStatus != OrderStatus.DELIVERED){
+            return;
+        }
+        boolean delivered = newStatus == OrderStatus.DELIVERED;
+        LocalDateTime at = delivered ? order.getDeliveredAt() : order.getPlacedAt();
+        LocalDate day = at == null ? LocalDate.now() : at.toLocalDate();
+        // Same product can appear in several lines of one order.
+        Map<Long, MapSqlParameterSource> perProduct = new LinkedHashMap<>();
+        for(OrderItem item : order.getOrderItems()){
+            Product product = item.getProduct();
+            if(product == null || product.getCompany() == null){
+                continue;
+            }
+            MapSqlParameterSource row = perProduct.computeIfAbsent(product.getId(), id -> new MapSqlParameterSource()
+                    .addValue("companyId", product.getCompany().getId())
+                    .addValue("productId", id)
+                    .addValue("day", Date.valueOf(day))
+                    .addValue("placedUnits", 0L)
+                    .addValue("placedRevenue", 0.0)
+                    .addValue("deliveredUnits", 0L)
+                    .addValue("deliveredRevenue", 0.0));
+            String units = delivered ? "deliveredUnits" : "placedUnits";
+            String revenue = delivered ? "deliveredRevenue" : "placedRevenue";
+            row.addValue(units, (Long) row.getValue(units) + item.getQuantity());
+            row.addValue(revenue, (Double) row.getValue(revenue) + item.getQuantity() * item.getPrice());
+        }
+        if(!perProduct.isEmpty()){
+            jdbcTemplate.batchUpdate(UPSERT, perProduct.values().toArray(new MapSqlParameterSource[0]));
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<SellerSalesStatsDto> getStats(Long companyId, LocalDate from, LocalDate to){
+        List<SellerSalesStatsDto> result = new ArrayList<>();
+        for(SellerProductDailySales rollup : salesRepo.findByCompanyIdAndSalesDayBetweenOrderBySalesDayAscProductIdAsc(companyId, from, to)){
+            result.add(SellerSalesStatsDto.buildFromRollup(rollup));
+        }
+        return result;
+    }
+
+    public boolean startBackfill(){
+        if(!backfillRunning.compareAndSet(false, true)){
+            return false;
+        }
+        backfillExecutor.submit(() -> {
+            try {
+                backfill();
+            } catch (RuntimeException e) {
+                LOGGER.error("Sales rollup backfill failed", e);
+            } finally {
+                backfillRunning.set(false);
+            }
+        });
+        return true;
+    }
+
+    private void backfill(){
+        Long maxId = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from customer_order",
+                new MapSqlParameterSource(), Long.class);
+        LOGGER.info("Starting sales rollup backfill up to order id {}", maxId);
+        jdbcTemplate.update("delete from seller_product_daily_sales", new MapSqlParameterSource());
+        long rows = 0;
+        for(long fromId = 0; fromId < maxId; fromId += backfillChunkSize){
+            MapSqlParameterSource range = new MapSqlParameterSource("fromId", fromId)
+                    .addValue("toId", fromId + backfillChunkSize);
+            Integer upserted = transactionTemplate.execute(status -> {
+                List<Map<String, Object>> chunk = jdbcTemplate.queryForList(BACKFILL_CHUNK, range);
+                if(chunk.isEmpty()){
+                    return 0;
+                }
+                MapSqlParameterSource[] batch = new MapSqlParameterSource[chunk.size()];
+                for(int i = 0; i < chunk.size(); i++){
+                    batch[i] = new MapSqlParameterSource(chunk.get(i));
+                }
+                jdbcTemplate.batchUpdate(UPSERT, batch);
+                return chunk.size();
+            });
+            rows += upserted == null ? 0 : upserted;
+        }
+        LOGGER.info("Finished sales rollup backfill, {} rollup rows upserted", rows);
+    }
+
+    public boolean isBackfillRunning(){
+        return backfillRunning.get();
+    }
+
+    @PreDestroy
+    public void shutdown(){
+        backfillExecutor.shutdownNow();
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.minor_project_01.service;
 
 import com.example.minor_project_01.dto.CreateResponseDTO;
+import com.example.minor_project_01.dto.ProductChangeEvent;
 import com.example.minor_project_01.dto.ProductDTO;
 import com.example.minor_project_01.dto.ResponseDTO;
 import com.example.minor_project_01.entity.Category;
@@ -11,6 +12,7 @@ import com.example.minor_project_01.repo.CategoryRepo;
 import com.example.minor_project_01.repo.CompanyRepo;
 import com.example.minor_project_01.repo.ProductRepo;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -30,6 +32,13 @@ public class SellerService {
     @Autowired
     private CategoryRepo categoryRepo;
 
+    @Autowired
+    private NegativeLookupCache negativeLookupCache;
+
+    // Feeds ProductChangeFeed, events are appended after commit.
+    @Autowired
+    private ApplicationEventPublisher applicationEventPublisher;
+
 
     public CreateResponseDTO createProduct(ProductDTO productDTO){
         Product product = new Product();
@@ -46,14 +55,17 @@ public class SellerService {
         Category category = categoryRepo.findById(productDTO.getCategoryId()).get();
         product.setCategory(category);
         product = productRepo.save(product);
+        applicationEventPublisher.publishEvent(ProductChangeEvent.of(ProductChangeEvent.Type.CREATED,
+                product.getId(), product.getStock(), product.getPrice()));
         CreateResponseDTO createResponseDTO = new CreateResponseDTO();
         createResponseDTO.setMessage("Product created successfully");
         createResponseDTO.setId(product.getId());
         return createResponseDTO;
     }
 
+    @Transactional(readOnly = true)
     public List<ProductDTO> getProducts(){
-        List<Product> products = productRepo.findAll();
+        List<Product> products = productRepo.findByDeletedFalse();
         List<ProductDTO> result = new ArrayList<>();
         for(Product product: products){
             ProductDTO productDTO = ProductDTO.buildDTOFromProduct(product);
@@ -63,11 +75,8 @@ public class SellerService {
     }
 
     @Transactional
-    public ResponseDTO updateProduct(Long id, ProductDTO productDTO){
-        Product product = productRepo.findById(id).get();
-        if(product == null){
-
-        }
+    public ResponseDTO updateProduct(Long id, ProductDTO productDTO) throws NotFoundException {
+        Product product = negativeLookupCache.findOrThrow(NegativeLookupCache.PRODUCT, id, productRepo::findByIdAndDeletedFalse, "Product Id is worng");
         product.setName(productDTO.getName());
         product.setPrice(productDTO.getPrice());
         product.setStock(productDTO.getStock());
@@ -75,6 +84,8 @@ public class SellerService {
         product.setActive(productDTO.getActive());
         product.setImageUrl(product.getImageUrl());
         //productRepo.save(product);
+        applicationEventPublisher.publishEvent(ProductChangeEvent.of(ProductChangeEvent.Type.UPDATED,
+                product.getId(), product.getStock(), product.getPrice()));
         ResponseDTO responseDTO = new ResponseDTO();
         responseDTO.setMsg("Updated Product");
         responseDTO.setStatusCode("123-U");
@@ -82,9 +93,13 @@ public class SellerService {
     }
 
 
+    @Transactional
     public ResponseDTO deleteProduct(Long id) throws NotFoundException {
-        Product product = productRepo.findById(id).orElseThrow(()-> new NotFoundException("Product Id is worng"));
-        productRepo.deleteById(id);
+        Product product = negativeLookupCache.findOrThrow(NegativeLookupCache.PRODUCT, id, productRepo::findByIdAndDeletedFalse, "Product Id is worng");
+        // Soft delete (see @SQLDelete on Product), the row is archived later by PurgeSoftDeletedTask.
+        productRepo.delete(product);
+        applicationEventPublisher.publishEvent(ProductChangeEvent.of(ProductChangeEvent.Type.DELETED,
+                product.getId(), null, null));
         ResponseDTO responseDTO = new ResponseDTO();
         responseDTO.setMsg("Product Deleted");
         responseDTO.setStatusCode("123-D");
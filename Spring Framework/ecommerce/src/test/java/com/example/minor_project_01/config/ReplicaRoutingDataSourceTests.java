@@ -0,0 +1,78 @@
+package com.example.minor_project_01.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReplicaRoutingDataSourceTests {
+
+	private JdbcTemplate replicaJdbc;
+	private ReplicaLagMonitor lagMonitor;
+	private ReadYourWritesTracker tracker;
+	private JdbcTemplate routedJdbc;
+	private TransactionTemplate readOnlyTx;
+	private TransactionTemplate readWriteTx;
+
+	@BeforeEach
+	void setUp() {
+		DataSource primary = new DriverManagerDataSource("jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1");
+		DataSource replica = new DriverManagerDataSource("jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1");
+		new JdbcTemplate(primary).execute("CREATE TABLE IF NOT EXISTS node(name VARCHAR(20))");
+		new JdbcTemplate(primary).execute("MERGE INTO node KEY(name) VALUES ('primary')");
+		replicaJdbc = new JdbcTemplate(replica);
+		replicaJdbc.execute("CREATE TABLE IF NOT EXISTS node(name VARCHAR(20))");
+		replicaJdbc.execute("MERGE INTO node KEY(name) VALUES ('replica')");
+		replicaJdbc.execute("CREATE TABLE IF NOT EXISTS replica_lag(seconds BIGINT)");
+		replicaJdbc.execute("DELETE FROM replica_lag");
+		replicaJdbc.execute("INSERT INTO replica_lag VALUES (0)");
+
+		lagMonitor = new ReplicaLagMonitor(replica, "SELECT seconds FROM replica_lag", 5);
+		tracker = new ReadYourWritesTracker(60_000);
+		DataSource routed = new LazyConnectionDataSourceProxy(
+				new ReplicaRoutingDataSource(primary, replica, lagMonitor, tracker));
+		routedJdbc = new JdbcTemplate(routed);
+		DataSourceTransactionManager txManager = new DataSourceTransactionManager(routed);
+		readOnlyTx = new TransactionTemplate(txManager);
+		readOnlyTx.setReadOnly(true);
+		readWriteTx = new TransactionTemplate(txManager);
+	}
+
+	private String readNode(TransactionTemplate tx) {
+		return tx.execute(status -> routedJdbc.queryForObject("SELECT name FROM node", String.class));
+	}
+
+	@Test
+	void readOnlyGoesToReplicaWhenHealthy() {
+		lagMonitor.checkReplica();
+		assertEquals("replica", readNode(readOnlyTx));
+		assertEquals("primary", readNode(readWriteTx));
+	}
+
+	@Test
+	void laggingReplicaFallsBackToPrimary() {
+		replicaJdbc.execute("UPDATE replica_lag SET seconds = 30");
+		lagMonitor.checkReplica();
+		assertEquals("primary", readNode(readOnlyTx));
+	}
+
+	@Test
+	void userReadsStayOnPrimaryAfterOwnWrite() {
+		lagMonitor.checkReplica();
+		tracker.markWrite(7L);
+		try {
+			assertEquals("primary", readNode(readOnlyTx));
+			tracker.bindUser(8L);
+			assertEquals("replica", readNode(readOnlyTx));
+		} finally {
+			tracker.clear();
+		}
+	}
+}
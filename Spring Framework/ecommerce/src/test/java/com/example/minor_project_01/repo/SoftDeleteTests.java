@@ -0,0 +1,129 @@
+package com.example.minor_project_01.repo;
+
+import com.example.minor_project_01.dto.OrderItemDto;
+import com.example.minor_project_01.entity.*;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+A placed order whose product or customer is soft deleted afterwards, against an embedded database
+with the real entity mappings and repositories.
+ */
+class SoftDeleteTests {
+
+	private LocalContainerEntityManagerFactoryBean entityManagerFactory;
+	private EntityManager em;
+	private ProductRepo productRepo;
+	private UserRepo userRepo;
+	private OrderRepo orderRepo;
+	private OrderItemRepo orderItemRepo;
+
+	private Long productId;
+	private Long userId;
+	private Long orderId;
+
+	@BeforeEach
+	void setUp() {
+		entityManagerFactory = new LocalContainerEntityManagerFactoryBean();
+		entityManagerFactory.setDataSource(new DriverManagerDataSource("jdbc:h2:mem:softdelete;DB_CLOSE_DELAY=-1;NON_KEYWORDS=USER"));
+		entityManagerFactory.setPackagesToScan("com.example.minor_project_01.entity");
+		entityManagerFactory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+		entityManagerFactory.setJpaPropertyMap(Map.of("hibernate.hbm2ddl.auto", "create-drop"));
+		entityManagerFactory.afterPropertiesSet();
+		em = entityManagerFactory.getObject().createEntityManager();
+
+		JpaRepositoryFactory repositories = new JpaRepositoryFactory(em);
+		productRepo = repositories.getRepository(ProductRepo.class);
+		userRepo = repositories.getRepository(UserRepo.class);
+		orderRepo = repositories.getRepository(OrderRepo.class);
+		orderItemRepo = repositories.getRepository(OrderItemRepo.class);
+
+		inTransaction(() -> {
+			User customer = new User();
+			customer.setName("Ann");
+			customer.setEmail("ann@example.com");
+			customer.setRole(Role.CUSTOMER);
+			em.persist(customer);
+
+			Product product = new Product();
+			product.setName("Laptop HP A01");
+			product.setPrice(500.0);
+			product.setStock(3);
+			product.setActive(true);
+			em.persist(product);
+
+			Order order = Order.builder().user(customer).status(OrderStatus.PLACED).totalAmount(500.0).build();
+			em.persist(order);
+			em.persist(OrderItem.builder().order(order).product(product).quantity(1).price(500.0).build());
+
+			productId = product.getId();
+			userId = customer.getId();
+			orderId = order.getId();
+			return null;
+		});
+		em.clear();
+	}
+
+	@AfterEach
+	void tearDown() {
+		em.close();
+		entityManagerFactory.destroy();
+	}
+
+	private <T> T inTransaction(Supplier<T> work) {
+		em.getTransaction().begin();
+		T result = work.get();
+		em.getTransaction().commit();
+		return result;
+	}
+
+	@Test
+	void orderLoadsProductDeletedAfterItWasPlaced() {
+		inTransaction(() -> {
+			productRepo.delete(productRepo.findByIdAndDeletedFalse(productId).orElseThrow());
+			return null;
+		});
+		em.clear();
+
+		assertTrue(productRepo.findByIdAndDeletedFalse(productId).isEmpty());
+		assertTrue(productRepo.findByDeletedFalse().isEmpty());
+
+		Order order = orderRepo.findById(orderId).orElseThrow();
+		assertEquals(1, order.getOrderItems().size());
+		assertEquals("Laptop HP A01", OrderItemDto.mapOrderItemToDto(order.getOrderItems().get(0)).getProductName());
+		em.clear();
+
+		List<OrderItem> lines = orderItemRepo.findByOrderIdWithProduct(orderId);
+		assertEquals(1, lines.size());
+		assertTrue(lines.get(0).getProduct().isDeleted());
+	}
+
+	@Test
+	void orderLoadsCustomerDeletedAfterItWasPlaced() {
+		inTransaction(() -> {
+			userRepo.delete(userRepo.findByIdAndDeletedFalse(userId).orElseThrow());
+			return null;
+		});
+		em.clear();
+
+		assertTrue(userRepo.findByIdAndDeletedFalse(userId).isEmpty());
+		assertTrue(userRepo.findByRoleAndDeletedFalse(Role.CUSTOMER).isEmpty());
+		// The email stays taken while the row exists.
+		assertEquals(List.of("ann@example.com"), userRepo.findExistingEmails(List.of("ann@example.com")));
+
+		Order order = orderRepo.findById(orderId).orElseThrow();
+		assertEquals("ann@example.com", order.getUser().getEmail());
+	}
+}
@@ -0,0 +1,35 @@
+package com.example.minor_project_01.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IdBloomFilterTests {
+
+	@Test
+	void addedIdsAreAlwaysFound() {
+		IdBloomFilter filter = new IdBloomFilter(10_000, 0.01);
+		for (long id = 1; id <= 10_000; id++) {
+			filter.add(id);
+		}
+		for (long id = 1; id <= 10_000; id++) {
+			assertTrue(filter.mightContain(id));
+		}
+	}
+
+	@Test
+	void falsePositiveRateStaysNearTarget() {
+		IdBloomFilter filter = new IdBloomFilter(10_000, 0.01);
+		for (long id = 1; id <= 10_000; id++) {
+			filter.add(id);
+		}
+		int falsePositives = 0;
+		for (long id = 1_000_000; id < 1_100_000; id++) {
+			if (filter.mightContain(id)) {
+				falsePositives++;
+			}
+		}
+		assertTrue(falsePositives / 100_000.0 < 0.02, "observed fpr " + falsePositives / 100_000.0);
+		assertTrue(filter.getEstimatedFalsePositiveRate() < 0.02);
+	}
+}
@@ -0,0 +1,97 @@
+package com.example.minor_project_01.service;
+
+import com.example.minor_project_01.exception.NotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+The filter and negative cache of one node, with rows inserted straight into the table
+the way another node or an import outside the app would.
+ */
+class IdExistenceFilterTests {
+
+	private JdbcTemplate jdbc;
+	private IdExistenceFilter filter;
+	private NegativeLookupCache cache;
+
+	@BeforeEach
+	void setUp() {
+		DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:idfilter;DB_CLOSE_DELAY=-1;NON_KEYWORDS=USER");
+		jdbc = new JdbcTemplate(dataSource);
+		jdbc.execute("CREATE TABLE IF NOT EXISTS product (id BIGINT PRIMARY KEY)");
+		jdbc.execute("CREATE TABLE IF NOT EXISTS user (id BIGINT PRIMARY KEY)");
+		jdbc.execute("DELETE FROM product");
+		jdbc.execute("DELETE FROM user");
+		// Odd ids only, so the gaps are ids the scan covered and found absent.
+		for (long id = 1; id <= 5_000; id += 2) {
+			jdbc.update("INSERT INTO product VALUES (?)", id);
+		}
+
+		filter = new IdExistenceFilter();
+		ReflectionTestUtils.setField(filter, "jdbcTemplate", new NamedParameterJdbcTemplate(dataSource));
+		ReflectionTestUtils.setField(filter, "enabled", true);
+		ReflectionTestUtils.setField(filter, "falsePositiveRate", 0.01);
+		ReflectionTestUtils.setField(filter, "growthFactor", 1.5);
+		ReflectionTestUtils.setField(filter, "scanPageSize", 1_000);
+		ReflectionTestUtils.setField(filter, "inFlightIdMargin", 10L);
+		filter.run();
+
+		cache = new NegativeLookupCache();
+		ReflectionTestUtils.setField(cache, "idExistenceFilter", filter);
+		ReflectionTestUtils.setField(cache, "ttlMillis", 60_000L);
+		ReflectionTestUtils.setField(cache, "maxEntries", 1_000);
+	}
+
+	private Optional<Long> findProduct(Long id) {
+		return jdbc.queryForList("SELECT id FROM product WHERE id = ?", Long.class, id).stream().findFirst();
+	}
+
+	@Test
+	void scannedIdsAreFound() throws NotFoundException {
+		for (long id = 1; id <= 5_000; id += 2) {
+			assertEquals(id, cache.findOrThrow(NegativeLookupCache.PRODUCT, id, this::findProduct, "missing"));
+		}
+	}
+
+	@Test
+	void rowInsertedBehindTheFilterIsFound() throws NotFoundException {
+		jdbc.update("INSERT INTO product VALUES (?)", 5_001L);
+		assertTrue(filter.mightExist(NegativeLookupCache.PRODUCT, 5_001L));
+		assertEquals(5_001L, cache.findOrThrow(NegativeLookupCache.PRODUCT, 5_001L, this::findProduct, "missing"));
+	}
+
+	@Test
+	void missAboveScannedRangeIsNotCached() throws NotFoundException {
+		assertThrows(NotFoundException.class,
+				() -> cache.findOrThrow(NegativeLookupCache.PRODUCT, 6_000L, this::findProduct, "missing"));
+		jdbc.update("INSERT INTO product VALUES (?)", 6_000L);
+		assertEquals(6_000L, cache.findOrThrow(NegativeLookupCache.PRODUCT, 6_000L, this::findProduct, "missing"));
+	}
+
+	@Test
+	void idsWithinInFlightMarginGoToTheDb() throws NotFoundException {
+		// Handed out before the scan, committed after it.
+		jdbc.update("INSERT INTO product VALUES (?)", 4_996L);
+		assertEquals(4_996L, cache.findOrThrow(NegativeLookupCache.PRODUCT, 4_996L, this::findProduct, "missing"));
+	}
+
+	@Test
+	void coveredAbsentIdsAreRejected() {
+		for (long id = 2; id < 4_000; id += 2) {
+			long absent = id;
+			assertThrows(NotFoundException.class,
+					() -> cache.findOrThrow(NegativeLookupCache.PRODUCT, absent, this::findProduct, "missing"));
+		}
+		assertFalse(filter.isCovered(NegativeLookupCache.PRODUCT, 5_000L));
+		assertTrue(filter.isCovered(NegativeLookupCache.PRODUCT, 4_000L));
+	}
+}
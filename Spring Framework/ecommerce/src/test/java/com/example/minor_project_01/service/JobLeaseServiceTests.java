@@ -0,0 +1,75 @@
+package com.example.minor_project_01.service;
+
+import com.example.minor_project_01.exception.LeaseLostException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+Two JobLeaseService instances (two "nodes") against one embedded database.
+ */
+class JobLeaseServiceTests {
+
+	private JdbcTemplate jdbc;
+	private TransactionTemplate transactionTemplate;
+	private JobLeaseService node1;
+	private JobLeaseService node2;
+
+	@BeforeEach
+	void setUp() {
+		DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:leases;DB_CLOSE_DELAY=-1");
+		jdbc = new JdbcTemplate(dataSource);
+		jdbc.execute("CREATE TABLE IF NOT EXISTS job_lease (job_name VARCHAR(255) PRIMARY KEY, owner VARCHAR(255), "
+				+ "lease_until TIMESTAMP(6), fencing_token BIGINT)");
+		jdbc.execute("DELETE FROM job_lease");
+		NamedParameterJdbcTemplate namedJdbc = new NamedParameterJdbcTemplate(dataSource);
+		transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+		node1 = new JobLeaseService(namedJdbc, transactionTemplate, "node-1");
+		node2 = new JobLeaseService(namedJdbc, transactionTemplate, "node-2");
+	}
+
+	@AfterEach
+	void tearDown() {
+		node1.shutdown();
+		node2.shutdown();
+	}
+
+	@Test
+	void onlyOneNodeHoldsTheLease() {
+		JobLeaseService.Lease lease = node1.tryAcquire("job", Duration.ofSeconds(30));
+		assertNotNull(lease);
+		assertNull(node2.tryAcquire("job", Duration.ofSeconds(30)));
+		assertTrue(node1.renew(lease));
+	}
+
+	@Test
+	void expiredLeaseFailsOverWithHigherFencingToken() throws InterruptedException {
+		JobLeaseService.Lease old = node1.tryAcquire("job", Duration.ofMillis(50));
+		Thread.sleep(200);
+		JobLeaseService.Lease taken = node2.tryAcquire("job", Duration.ofSeconds(30));
+		assertNotNull(taken);
+		assertTrue(taken.getFencingToken() > old.getFencingToken());
+
+		assertFalse(node1.renew(old));
+		assertThrows(LeaseLostException.class,
+				() -> transactionTemplate.executeWithoutResult(status -> node1.assertStillHeld(old)));
+		transactionTemplate.executeWithoutResult(status -> node2.assertStillHeld(taken));
+	}
+
+	@Test
+	void releasedLeaseCanBeTakenImmediately() {
+		JobLeaseService.Lease lease = node1.tryAcquire("job", Duration.ofSeconds(30));
+		node1.release(lease);
+		assertNotNull(node2.tryAcquire("job", Duration.ofSeconds(30)));
+	}
+}
@@ -0,0 +1,168 @@
+package com.example.minor_project_01.service;
+
+import com.example.minor_project_01.dto.OrderDetailDto;
+import com.example.minor_project_01.dto.OrderItemDto;
+import com.example.minor_project_01.exception.NotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.*;
+
+/*
+Order detail against an embedded database: order 1 has ten lines, products 1..10 spread over
+two companies and three categories. maxIdsPerQuery is 3, so products take four IN queries.
+ */
+class OrderDetailAssemblerTests {
+
+	private NamedParameterJdbcTemplate jdbc;
+	private OrderDetailAssembler assembler;
+
+	@BeforeEach
+	void setUp() {
+		DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:orderdetail;DB_CLOSE_DELAY=-1");
+		JdbcTemplate setup = new JdbcTemplate(dataSource);
+		setup.execute("DROP ALL OBJECTS");
+		setup.execute("CREATE TABLE customer_order (id BIGINT PRIMARY KEY, status VARCHAR(20), total_amount DOUBLE)");
+		setup.execute("CREATE TABLE order_item (id BIGINT PRIMARY KEY, quantity INT, price DOUBLE, order_id BIGINT, product_id BIGINT)");
+		setup.execute("CREATE TABLE product (id BIGINT PRIMARY KEY, name VARCHAR(255), stock INT, active BOOLEAN, "
+				+ "company_id BIGINT, category_id BIGINT)");
+		setup.execute("CREATE TABLE company (id BIGINT PRIMARY KEY, name VARCHAR(255))");
+		setup.execute("CREATE TABLE category (id BIGINT PRIMARY KEY, name VARCHAR(255))");
+		setup.update("INSERT INTO customer_order VALUES (1, 'PLACED', 55.0), (2, 'DRAFT', 0.0)");
+		setup.update("INSERT INTO company VALUES (1, 'Acme'), (2, 'Globex')");
+		setup.update("INSERT INTO category VALUES (1, 'Books'), (2, 'Games'), (3, 'Tools')");
+		for (long id = 1; id <= 10; id++) {
+			setup.update("INSERT INTO product VALUES (?, ?, ?, ?, ?, ?)", id, "Product " + id, id * 10, id != 5, 1 + id % 2, 1 + id % 3);
+			setup.update("INSERT INTO order_item VALUES (?, ?, ?, 1, ?)", 100 + id, (int) id, 1.0, id);
+		}
+
+		jdbc = spy(new NamedParameterJdbcTemplate(dataSource));
+		assembler = new OrderDetailAssembler();
+		ReflectionTestUtils.setField(assembler, "jdbcTemplate", jdbc);
+		ReflectionTestUtils.setField(assembler, "workers", 2);
+		ReflectionTestUtils.setField(assembler, "queueCapacity", 16);
+		ReflectionTestUtils.setField(assembler, "parallelMinLines", 5);
+		ReflectionTestUtils.setField(assembler, "maxIdsPerQuery", 3);
+		ReflectionTestUtils.setField(assembler, "deadlineMillis", 2_000L);
+	}
+
+	@AfterEach
+	void tearDown() {
+		assembler.shutdown();
+	}
+
+	private void slowDown(String table, long millis) {
+		doAnswer(invocation -> {
+			Thread.sleep(millis);
+			return invocation.callRealMethod();
+		}).when(jdbc).query(contains("from " + table), any(SqlParameterSource.class), any(RowCallbackHandler.class));
+	}
+
+	@Test
+	void linesAreFilledFromBatchedInQueries() throws NotFoundException {
+		ReflectionTestUtils.setField(assembler, "parallelMinLines", 100);
+		assembler.init();
+
+		OrderDetailDto detail = assembler.assemble(1L);
+
+		assertTrue(detail.getComplete());
+		assertEquals("PLACED", detail.getStatus());
+		assertEquals(10, detail.getOrderItems().size());
+		OrderItemDto fifth = detail.getOrderItems().get(4);
+		assertEquals(105L, fifth.getId());
+		assertEquals("Product 5", fifth.getProductName());
+		assertEquals(50, fifth.getAvailableStock());
+		assertFalse(fifth.getProductActive());
+		assertEquals("Globex", fifth.getCompanyName());
+		assertEquals("Tools", fifth.getCategoryName());
+		assertEquals(5.0, fifth.getTotalPrice());
+		// 10 products in chunks of 3, 2 companies and 3 categories in one chunk each
+		verify(jdbc, times(4)).queryForList(contains("from product where id in"), any(SqlParameterSource.class));
+		verify(jdbc, times(1)).query(contains("from company"), any(SqlParameterSource.class), any(RowCallbackHandler.class));
+		verify(jdbc, times(1)).query(contains("from category"), any(SqlParameterSource.class), any(RowCallbackHandler.class));
+	}
+
+	@Test
+	void concurrentBatchesFillTheSameDetail() throws NotFoundException {
+		assembler.init();
+
+		OrderDetailDto detail = assembler.assemble(1L);
+
+		assertTrue(detail.getComplete());
+		for (OrderItemDto item : detail.getOrderItems()) {
+			assertEquals("Product " + item.getProductId(), item.getProductName());
+			assertNotNull(item.getCompanyName());
+			assertNotNull(item.getCategoryName());
+		}
+	}
+
+	@Test
+	void batchOverrunningTheDeadlineLeavesItsFieldsEmpty() throws NotFoundException {
+		ReflectionTestUtils.setField(assembler, "deadlineMillis", 300L);
+		assembler.init();
+		slowDown("category", 5_000);
+
+		long started = System.currentTimeMillis();
+		OrderDetailDto detail = assembler.assemble(1L);
+
+		assertTrue(System.currentTimeMillis() - started < 2_000, "assemble should return at the deadline");
+		assertFalse(detail.getComplete());
+		OrderItemDto first = detail.getOrderItems().get(0);
+		assertEquals(1, first.getQuantity());
+		assertEquals("Product 1", first.getProductName());
+		assertNull(first.getCategoryName());
+	}
+
+	@Test
+	void fullQueueStillKeepsTheDeadline() throws NotFoundException {
+		// One worker, one queue slot and a product query per id: most batches are rejected.
+		ReflectionTestUtils.setField(assembler, "workers", 1);
+		ReflectionTestUtils.setField(assembler, "queueCapacity", 1);
+		ReflectionTestUtils.setField(assembler, "maxIdsPerQuery", 1);
+		ReflectionTestUtils.setField(assembler, "deadlineMillis", 300L);
+		assembler.init();
+		slowDown("company", 200);
+		slowDown("category", 200);
+		doAnswer(invocation -> {
+			Thread.sleep(200);
+			return invocation.callRealMethod();
+		}).when(jdbc).queryForList(contains("from product where id in"), any(SqlParameterSource.class));
+
+		long started = System.currentTimeMillis();
+		OrderDetailDto detail = assembler.assemble(1L);
+
+		// Twelve 200 ms batches; running the rejected ones on the caller regardless would take about 2 s.
+		assertTrue(System.currentTimeMillis() - started < 1_500, "rejected batches should stop at the deadline");
+		assertFalse(detail.getComplete());
+		assertEquals(10, detail.getOrderItems().size());
+	}
+
+	@Test
+	void orderWithoutLinesIsComplete() throws NotFoundException {
+		assembler.init();
+
+		OrderDetailDto detail = assembler.assemble(2L);
+
+		assertTrue(detail.getComplete());
+		assertTrue(detail.getOrderItems().isEmpty());
+	}
+
+	@Test
+	void missingOrderIsNotFound() {
+		assembler.init();
+
+		assertThrows(NotFoundException.class, () -> assembler.assemble(99L));
+	}
+}
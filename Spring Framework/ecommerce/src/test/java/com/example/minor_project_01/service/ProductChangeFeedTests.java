@@ -0,0 +1,149 @@
+package com.example.minor_project_01.service;
+
+import com.example.minor_project_01.dto.ProductChangeEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+Feed restarts against the same log directory. Only a few events are kept in memory,
+so reads of older offsets go through the sparse index and the log file.
+ */
+class ProductChangeFeedTests {
+
+	@TempDir
+	Path dir;
+
+	private final List<ProductChangeFeed> opened = new ArrayList<>();
+
+	@AfterEach
+	void tearDown() throws IOException {
+		for (ProductChangeFeed feed : opened) {
+			feed.close();
+		}
+	}
+
+	private ProductChangeFeed open() throws IOException {
+		ProductChangeFeed feed = new ProductChangeFeed();
+		ReflectionTestUtils.setField(feed, "feedDir", dir.toString());
+		ReflectionTestUtils.setField(feed, "memoryEvents", 10);
+		ReflectionTestUtils.setField(feed, "pollMillis", 10L);
+		feed.open();
+		opened.add(feed);
+		return feed;
+	}
+
+	private static void appendEvents(ProductChangeFeed feed, int count) {
+		for (int i = 0; i < count; i++) {
+			feed.append(ProductChangeEvent.of(ProductChangeEvent.Type.STOCK_CHANGED, (long) i, i, 9.5));
+		}
+	}
+
+	private static List<Long> offsets(List<ProductChangeEvent> events) {
+		return events.stream().map(ProductChangeEvent::getOffset).toList();
+	}
+
+	private Path log() {
+		return dir.resolve("product-changes.log");
+	}
+
+	@Test
+	void restartRecoversOffsetsAndOldEvents() throws IOException {
+		ProductChangeFeed feed = open();
+		appendEvents(feed, 2_500);
+		feed.close();
+
+		ProductChangeFeed reopened = open();
+		assertEquals(2_500, reopened.getNextOffset());
+		assertEquals(List.of(1_500L, 1_501L, 1_502L), offsets(reopened.poll(1_500, 3)));
+		assertEquals(List.of(2_495L, 2_496L), offsets(reopened.poll(2_495, 2)));
+		assertEquals(2_500, reopened.append(ProductChangeEvent.of(ProductChangeEvent.Type.UPDATED, 1L, null, null)));
+	}
+
+	@Test
+	void tornLastLineIsCutOffOnRecovery() throws IOException {
+		ProductChangeFeed feed = open();
+		appendEvents(feed, 3);
+		feed.close();
+		long complete = Files.size(log());
+		Files.writeString(log(), "3|STOCK_CHA", StandardOpenOption.APPEND);
+
+		ProductChangeFeed reopened = open();
+		assertEquals(complete, Files.size(log()));
+		assertEquals(3, reopened.getNextOffset());
+		appendEvents(reopened, 1);
+		reopened.close();
+
+		ProductChangeFeed again = open();
+		assertEquals(4, again.getNextOffset());
+		assertEquals(List.of(0L, 1L, 2L, 3L), offsets(again.poll(0, 10)));
+	}
+
+	@Test
+	void nonAsciiLinesDoNotShiftTheSparseIndex() throws IOException {
+		StringBuilder log = new StringBuilder();
+		for (long offset = 0; offset < 2_100; offset++) {
+			if (offset % 100 == 50) {
+				// Multi-byte characters, and a blank line made of a 3-byte space.
+				log.append("prodotto più venduto – ünïcode\n").append('\u3000').append('\n');
+			}
+			log.append(offset).append("|UPDATED|").append(offset).append("||1.5|0\n");
+		}
+		Files.writeString(log(), log, StandardCharsets.UTF_8);
+
+		ProductChangeFeed feed = open();
+		assertEquals(2_100, feed.getNextOffset());
+		assertEquals(List.of(1_000L, 1_001L), offsets(feed.poll(1_000, 2)));
+		assertEquals(List.of(2_000L), offsets(feed.poll(2_000, 1)));
+		assertEquals(List.of(1_049L, 1_050L, 1_051L), offsets(feed.poll(1_049, 3)));
+	}
+
+	@Test
+	void subscriptionResumesFromCommittedOffset() throws Exception {
+		ProductChangeFeed feed = open();
+		appendEvents(feed, 50);
+		List<Long> firstRun = new CopyOnWriteArrayList<>();
+		feed.subscribe("consumer", 0, 20, batch -> firstRun.addAll(offsets(batch)));
+		awaitCommitted("consumer", 50);
+		feed.close();
+
+		ProductChangeFeed reopened = open();
+		appendEvents(reopened, 5);
+		List<Long> secondRun = new CopyOnWriteArrayList<>();
+		ProductChangeFeed.Subscription resumed = reopened.subscribe("consumer", 0, 20,
+				batch -> secondRun.addAll(offsets(batch)));
+		awaitOffset(resumed, 55);
+
+		assertEquals(50, firstRun.size());
+		assertEquals(List.of(50L, 51L, 52L, 53L, 54L), secondRun);
+	}
+
+	private void awaitCommitted(String name, long offset) throws Exception {
+		Path offsetFile = dir.resolve(name + ".offset");
+		long deadline = System.currentTimeMillis() + 5_000;
+		while (!Files.exists(offsetFile) || Long.parseLong(Files.readString(offsetFile).trim()) < offset) {
+			assertTrue(System.currentTimeMillis() < deadline, "offset " + offset + " never committed");
+			Thread.sleep(10);
+		}
+	}
+
+	private static void awaitOffset(ProductChangeFeed.Subscription subscription, long offset) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5_000;
+		while (subscription.getOffset() < offset) {
+			assertTrue(System.currentTimeMillis() < deadline, "subscription stuck at " + subscription.getOffset());
+			Thread.sleep(10);
+		}
+	}
+}
@@ -0,0 +1,31 @@
+package com.example.restful_webservices_demo.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+// Threads that run the database work of AsyncUserController.
+// One thread per pooled connection (more would only wait inside Hikari) and a short queue;
+// when both are full a request is rejected at once instead of waiting.
+@Configuration
+public class DbExecutorConfig {
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int connectionPoolSize;
+
+    @Value("${app.async.queue-capacity:50}")
+    private int queueCapacity;
+
+    @Bean(name = "dbExecutor")
+    public ThreadPoolTaskExecutor dbExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(connectionPoolSize);
+        executor.setMaxPoolSize(connectionPoolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("db-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        return executor;
+    }
+}
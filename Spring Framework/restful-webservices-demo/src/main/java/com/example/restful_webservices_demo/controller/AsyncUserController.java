@@ -0,0 +1,94 @@
+package com.example.restful_webservices_demo.controller;
+
+import com.example.restful_webservices_demo.exception.UserNotFoundException;
+import com.example.restful_webservices_demo.interfaces.UserServiceInterface;
+import com.example.restful_webservices_demo.model.User;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+// Same operations as UserController under /async, but the Tomcat thread is released right away:
+// the database work runs on dbExecutor (sized to the connection pool) and the response is written when it completes.
+// - executor and its queue full: 503 immediately, with Retry-After
+// - not done within app.async.timeout-millis: 504 (the query itself still finishes on its db thread)
+@RestController
+@RequestMapping("/async")
+public class AsyncUserController {
+    private static final Logger logger = LoggerFactory.getLogger(AsyncUserController.class);
+    private static final int MAX_PAGE_SIZE = 1000;
+    @Autowired
+    private UserServiceInterface userService;
+    @Autowired
+    @Qualifier("dbExecutor")
+    private ThreadPoolTaskExecutor dbExecutor;
+    @Value("${app.async.timeout-millis:3000}")
+    private long timeoutMillis;
+
+    @PostMapping("/user")
+    public CompletableFuture<User> addUserDetails(@Valid @RequestBody User user){
+        return onDbExecutor(() -> userService.addUser(user));
+    }
+
+    @GetMapping("/user")
+    public CompletableFuture<List<Map<String, Object>>> getAllUserDetails(@RequestParam(defaultValue = "0") int page,
+                                                                        @RequestParam(defaultValue = "50") int size,
+                                                                        @RequestParam(required = false) Integer after,
+                                                                        @RequestParam(required = false) List<String> fields){
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        return onDbExecutor(() -> userService.getUsers(Math.max(0, page), pageSize, after, fields));
+    }
+
+    @GetMapping("/user/{id}")
+    public CompletableFuture<ResponseEntity<User>> getUserById(@PathVariable int id){
+        return onDbExecutor(() -> userService.getUserById(id)
+                .map(user -> ResponseEntity.ok().body(user))
+                .orElseGet(() -> ResponseEntity.notFound().build()));
+    }
+
+    @PutMapping("/user/{id}")
+    public CompletableFuture<User> updateUserDetails(@PathVariable int id, @Valid @RequestBody User user){
+        return onDbExecutor(() -> userService.updateUserDetails(id, user));
+    }
+
+    // Throws RejectedExecutionException right here when saturated, before any async processing starts
+    private <T> CompletableFuture<T> onDbExecutor(Supplier<T> work){
+        return CompletableFuture.supplyAsync(work, dbExecutor).orTimeout(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<String> handleSaturated(RejectedExecutionException e){
+        logger.warn("DB executor saturated, active {} queued {}", dbExecutor.getActiveCount(),
+                dbExecutor.getThreadPoolExecutor().getQueue().size());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "1").body("Too many requests in progress");
+    }
+
+    @ExceptionHandler(TimeoutException.class)
+    public ResponseEntity<String> handleTimeout(TimeoutException e){
+        return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body("Database did not answer within " + timeoutMillis + " ms");
+    }
+
+    @ExceptionHandler(UserNotFoundException.class)
+    public ResponseEntity<String> handleNotFound(UserNotFoundException e){
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleBadRequest(IllegalArgumentException e){
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+}
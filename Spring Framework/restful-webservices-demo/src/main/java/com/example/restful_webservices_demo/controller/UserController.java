@@ -1,34 +1,127 @@
 package com.example.restful_webservices_demo.controller;
 
+import com.example.restful_webservices_demo.exception.SearchIndexNotReadyException;
 import com.example.restful_webservices_demo.interfaces.UserServiceInterface;
 import com.example.restful_webservices_demo.model.User;
+import com.example.restful_webservices_demo.services.BulkUserIngestService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
 public class UserController {
     private static final Logger logger = LoggerFactory.getLogger(UserController.class);
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final String NDJSON = "application/x-ndjson";
     @Autowired
     private UserServiceInterface userService;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private BulkUserIngestService bulkUserIngestService;
     @PostMapping("/user")
     public User addUserDetails(@Valid @RequestBody User user){
         logger.info("Received User: {}", user);
         return userService.addUser(user);
     }
 
+    // JSON array or NDJSON body. The response is NDJSON: one outcome per record in input order
+    // ({"index","status":"CREATED","id"} or {"index","status":"REJECTED","error"}), then a {"summary":...} line.
+    @PostMapping("/user/bulk")
+    public void bulkAddUserDetails(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType(NDJSON);
+        OutputStream out = new BufferedOutputStream(response.getOutputStream(), 64 * 1024);
+        Map<String, Object> summary = bulkUserIngestService.ingest(request.getInputStream(), outcome -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(outcome));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        out.write(objectMapper.writeValueAsBytes(Map.of("summary", summary)));
+        out.write('\n');
+        out.flush();
+    }
+
+    // ?page=&size= or ?after=<last id> for the next page, ?fields=name,email to read only those columns.
+    // X-Next-Cursor holds the id to pass as after when there may be more rows.
+    // Accept: application/x-ndjson streams every user (after ?after=) as one JSON object per line instead.
     @GetMapping("/user")
-    public List<User> getAllUserDetails(){
-        return userService.getAllUser();
+    public ResponseEntity<?> getAllUserDetails(@RequestParam(defaultValue = "0") int page,
+                                               @RequestParam(defaultValue = "50") int size,
+                                               @RequestParam(required = false) Integer after,
+                                               @RequestParam(required = false) List<String> fields,
+                                               @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept){
+        if(accept != null && accept.contains(NDJSON)){
+            return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(streamUsers(after, fields));
+        }
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        List<Map<String, Object>> users = userService.getUsers(Math.max(0, page), pageSize, after, fields);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if(users.size() == pageSize){
+            response.header("X-Next-Cursor", String.valueOf(users.get(users.size() - 1).get("id")));
+        }
+        return response.body(users);
+    }
+
+    private StreamingResponseBody streamUsers(Integer after, List<String> fields){
+        return outputStream -> {
+            OutputStream out = new BufferedOutputStream(outputStream, 64 * 1024);
+            try {
+                userService.streamUsers(after, fields, user -> {
+                    try {
+                        out.write(objectMapper.writeValueAsBytes(user));
+                        out.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                // client went away, stop reading
+                logger.info("User stream aborted: {}", e.getCause().getMessage());
+                return;
+            }
+            out.flush();
+        };
+    }
+
+    // ?q=<prefix>&field=name|email|address (case-insensitive, paged) or ?email=<exact email>, served from UserSearchIndex
+    @GetMapping("/user/search")
+    public ResponseEntity<List<Map<String, Object>>> searchUsers(@RequestParam(required = false) String q,
+                                                                 @RequestParam(defaultValue = "name") String field,
+                                                                 @RequestParam(required = false) String email,
+                                                                 @RequestParam(defaultValue = "0") int page,
+                                                                 @RequestParam(defaultValue = "20") int size){
+        if(email != null){
+            return ResponseEntity.ok(userService.findUserByEmail(email).map(List::of).orElse(List.of()));
+        }
+        if(q == null || q.isBlank()){
+            throw new IllegalArgumentException("q or email is required");
+        }
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        return ResponseEntity.ok(userService.searchUsers(field, q, Math.max(0, page), pageSize));
     }
 
     @GetMapping("/user/{id}")
@@ -41,4 +134,23 @@ public class UserController {
         }
     }
 
+    @PutMapping("/user/{id}")
+    public User updateUserDetails(@PathVariable int id, @Valid @RequestBody User user){
+        return userService.updateUserDetails(id, user);
+    }
+
+    @GetMapping("/user/cache-stats")
+    public Map<String, Object> getUserCacheStats(){
+        return userService.getCacheStats();
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleBadRequest(IllegalArgumentException e){
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
+    @ExceptionHandler(SearchIndexNotReadyException.class)
+    public ResponseEntity<String> handleSearchNotReady(SearchIndexNotReadyException e){
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "5").body(e.getMessage());
+    }
 }
@@ -0,0 +1,11 @@
+package com.example.restful_webservices_demo.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class SearchIndexNotReadyException extends RuntimeException {
+    public SearchIndexNotReadyException() {
+        super("User search index is still being built, retry shortly");
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.restful_webservices_demo.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class UserNotFoundException extends RuntimeException {
+    public UserNotFoundException(int id) {
+        super("User not found with id" + id);
+    }
+}
@@ -2,7 +2,24 @@ package com.example.restful_webservices_demo.interfaces;
 
 import com.example.restful_webservices_demo.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface UserRepository extends JpaRepository<User, Integer> {
 
+    // One UPDATE statement instead of findById + save, returns the number of rows changed (0: no such id).
+    // Clears the persistence context so a findById afterwards reads the updated row.
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update User u set u.name = :name, u.address = :address, u.email = :email, u.phoneno = :phoneno where u.id = :id")
+    int updateDetails(@Param("id") int id, @Param("name") String name, @Param("address") String address,
+                      @Param("email") String email, @Param("phoneno") int phoneno);
+
+    @Query("select u.email from User u where u.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
 }
@@ -3,12 +3,19 @@ package com.example.restful_webservices_demo.interfaces;
 import com.example.restful_webservices_demo.model.User;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface UserServiceInterface {
     public User addUser(User user);
     public List<User> getAllUser();
+    public List<Map<String, Object>> getUsers(int page, int size, Integer afterId, List<String> fields);
+    public void streamUsers(Integer afterId, List<String> fields, Consumer<Map<String, Object>> consumer);
     public Optional<User> getUserById(int id);
     public User updateUserDetails(int id, User user);
+    public Map<String, Object> getCacheStats();
+    public List<Map<String, Object>> searchUsers(String field, String prefix, int page, int size);
+    public Optional<Map<String, Object>> findUserByEmail(String email);
 }
 
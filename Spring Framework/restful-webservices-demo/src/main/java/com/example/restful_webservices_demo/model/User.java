@@ -24,6 +24,14 @@ public class User {
     @Column(name = "phoneno")
     private int phoneno;
 
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
     public String getName() {
         return name;
     }
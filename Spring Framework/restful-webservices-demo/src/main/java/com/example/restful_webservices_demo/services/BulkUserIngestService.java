@@ -0,0 +1,232 @@
+package com.example.restful_webservices_demo.services;
+
+import com.example.restful_webservices_demo.interfaces.UserRepository;
+import com.example.restful_webservices_demo.model.User;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.*;
+import java.util.function.Consumer;
+
+// Bulk insert of users read from a JSON array or NDJSON stream, one record at a time (the body is never held whole).
+// Per batch of batch-size valid records: one IN query for emails already taken, then one JDBC batch insert
+// in its own transaction, so a failed batch leaves nothing behind before the one-by-one retry.
+// Emails are trimmed, and compared lowercased (the column's collation is case-insensitive).
+// Every record gets an outcome (CREATED with its id, or REJECTED with the reason) passed to the caller as it is decided.
+@Service
+public class BulkUserIngestService {
+    private static final Logger logger = LoggerFactory.getLogger(BulkUserIngestService.class);
+    private static final String INSERT_USER = "insert into user (name, address, email, phoneno) values (?, ?, ?, ?)";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserSearchIndex userSearchIndex;
+
+    // Only present when a Bean Validation provider is on the classpath
+    @Autowired(required = false)
+    private Validator validator;
+
+    @Value("${app.user.bulk.batch-size:1000}")
+    private int batchSize;
+
+    private record Pending(long index, User user) {
+    }
+
+    public Map<String, Object> ingest(InputStream body, Consumer<Map<String, Object>> outcomes) throws IOException {
+        long start = System.nanoTime();
+        long received = 0;
+        long[] counts = new long[2];
+        List<Pending> batch = new ArrayList<>(batchSize);
+        Set<String> batchEmails = new HashSet<>();
+        // readValues iterates the elements of a root array, or root values separated by newlines (NDJSON)
+        try (MappingIterator<User> users = objectMapper.readerFor(User.class).readValues(body)) {
+            while (true) {
+                long index = received;
+                User user;
+                try {
+                    if (!users.hasNextValue()) {
+                        break;
+                    }
+                    user = users.nextValue();
+                } catch (IOException e) {
+                    // broken JSON, nothing after it can be trusted
+                    reject(outcomes, counts, index, "Malformed record: " + e.getOriginalMessage());
+                    break;
+                }
+                received++;
+                String error = validate(user);
+                if (error == null && !batchEmails.add(emailKey(user.getEmail()))) {
+                    error = "Duplicate email in request " + user.getEmail();
+                }
+                if (error != null) {
+                    reject(outcomes, counts, index, error);
+                    continue;
+                }
+                batch.add(new Pending(index, user));
+                if (batch.size() == batchSize) {
+                    flush(batch, outcomes, counts);
+                    batch.clear();
+                }
+            }
+        }
+        flush(batch, outcomes, counts);
+
+        long millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("received", received);
+        summary.put("created", counts[0]);
+        summary.put("rejected", counts[1]);
+        summary.put("millis", millis);
+        summary.put("recordsPerSecond", received * 1000 / millis);
+        logger.info("Bulk user ingest: {}", summary);
+        return summary;
+    }
+
+    private String validate(User user) {
+        if (user == null) {
+            return "Empty record";
+        }
+        Set<ConstraintViolation<User>> violations = validator == null ? Set.of() : validator.validate(user);
+        if (!violations.isEmpty()) {
+            ConstraintViolation<User> violation = violations.iterator().next();
+            return violation.getPropertyPath() + " " + violation.getMessage();
+        }
+        if (user.getEmail() == null || user.getEmail().isBlank()) {
+            return "email is required";
+        }
+        user.setEmail(user.getEmail().trim());
+        return null;
+    }
+
+    private static String emailKey(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private void flush(List<Pending> batch, Consumer<Map<String, Object>> outcomes, long[] counts) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<String> emails = batch.stream().map(pending -> pending.user().getEmail()).toList();
+        // MySQL returns the stored casing, so compare normalized
+        Set<String> taken = new HashSet<>();
+        for (String email : userRepository.findExistingEmails(emails)) {
+            taken.add(emailKey(email));
+        }
+        List<Pending> inserts = new ArrayList<>(batch.size());
+        for (Pending pending : batch) {
+            if (taken.contains(emailKey(pending.user().getEmail()))) {
+                reject(outcomes, counts, pending.index(), "Email already exists " + pending.user().getEmail());
+            } else {
+                inserts.add(pending);
+            }
+        }
+        if (inserts.isEmpty()) {
+            return;
+        }
+        try {
+            KeyHolder keys = new GeneratedKeyHolder();
+            // rewriteBatchedStatements splits at max_allowed_packet, the transaction keeps the batch all or nothing
+            transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(INSERT_USER, Statement.RETURN_GENERATED_KEYS),
+                            new BatchPreparedStatementSetter() {
+                                @Override
+                                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                                    bind(ps, inserts.get(i).user());
+                                }
+
+                                @Override
+                                public int getBatchSize() {
+                                    return inserts.size();
+                                }
+                            }, keys));
+            List<Map<String, Object>> ids = keys.getKeyList();
+            for (int i = 0; i < inserts.size(); i++) {
+                Object id = i < ids.size() ? ids.get(i).values().iterator().next() : null;
+                index(inserts.get(i).user(), id);
+                created(outcomes, counts, inserts.get(i).index(), id);
+            }
+        } catch (DataAccessException e) {
+            // e.g. an email inserted by someone else since the IN query; the batch was rolled back,
+            // redo one by one to tell which record failed
+            logger.warn("Batch insert failed, retrying {} records one by one: {}", inserts.size(), e.getMessage());
+            for (Pending pending : inserts) {
+                insertOne(pending, outcomes, counts);
+            }
+        }
+    }
+
+    private void insertOne(Pending pending, Consumer<Map<String, Object>> outcomes, long[] counts) {
+        try {
+            KeyHolder key = new GeneratedKeyHolder();
+            jdbcTemplate.update(connection -> {
+                PreparedStatement ps = connection.prepareStatement(INSERT_USER, Statement.RETURN_GENERATED_KEYS);
+                bind(ps, pending.user());
+                return ps;
+            }, key);
+            index(pending.user(), key.getKey());
+            created(outcomes, counts, pending.index(), key.getKey());
+        } catch (DataAccessException e) {
+            reject(outcomes, counts, pending.index(), e.getMostSpecificCause().getMessage());
+        }
+    }
+
+    private void index(User user, Object id) {
+        if (id instanceof Number number) {
+            userSearchIndex.put(number.intValue(), user.getName(), user.getEmail(), user.getAddress());
+        }
+    }
+
+    private static void bind(PreparedStatement ps, User user) throws SQLException {
+        ps.setString(1, user.getName());
+        ps.setString(2, user.getAddress());
+        ps.setString(3, user.getEmail());
+        ps.setInt(4, user.getPhoneno());
+    }
+
+    private static void created(Consumer<Map<String, Object>> outcomes, long[] counts, long index, Object id) {
+        counts[0]++;
+        Map<String, Object> outcome = new LinkedHashMap<>();
+        outcome.put("index", index);
+        outcome.put("status", "CREATED");
+        outcome.put("id", id);
+        outcomes.accept(outcome);
+    }
+
+    private static void reject(Consumer<Map<String, Object>> outcomes, long[] counts, long index, String error) {
+        counts[1]++;
+        Map<String, Object> outcome = new LinkedHashMap<>();
+        outcome.put("index", index);
+        outcome.put("status", "REJECTED");
+        outcome.put("error", error);
+        outcomes.accept(outcome);
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.restful_webservices_demo.services;
+
+import com.example.restful_webservices_demo.model.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// In-memory copy of users by id. Filled on read misses and by addUser; updateUserDetails evicts.
+// A read miss takes loadStamp() before it queries and stores with putLoaded(): if the id was evicted in between,
+// the loaded row may predate the update and is dropped, so a slow read never re-caches an old user.
+// Entries expire after ttl-millis (other writers, e.g. direct SQL, show up after that), size is capped at max-entries.
+@Component
+public class UserCache {
+    @Value("${app.user.cache.ttl-millis:600000}")
+    private long ttlMillis;
+
+    @Value("${app.user.cache.max-entries:100000}")
+    private int maxEntries;
+
+    private final Map<Integer, Entry> users = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong puts = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong staleLoads = new AtomicLong();
+
+    // Eviction sequence: ids -> sequence number of their last eviction
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<Integer, Long> evictedAt = new ConcurrentHashMap<>();
+    // Loads stamped before this are dropped, set when evictedAt is cleared
+    private volatile long evictedBefore;
+
+    private record Entry(User user, long expiresAt) {
+    }
+
+    public User get(int id) {
+        Entry entry = users.get(id);
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        if (entry.expiresAt() < System.currentTimeMillis()) {
+            users.remove(id, entry);
+            evictions.incrementAndGet();
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.user();
+    }
+
+    public void put(User user) {
+        long now = System.currentTimeMillis();
+        if (users.size() >= maxEntries && !users.containsKey(user.getId())) {
+            int before = users.size();
+            users.values().removeIf(entry -> entry.expiresAt() < now);
+            if (users.size() >= maxEntries) {
+                users.clear();
+            }
+            evictions.addAndGet(before - users.size());
+        }
+        users.put(user.getId(), new Entry(user, now + ttlMillis));
+        puts.incrementAndGet();
+    }
+
+    public long loadStamp() {
+        return sequence.get();
+    }
+
+    // Caches a user read from the database after loadStamp() returned stamp, unless the id was evicted since
+    public void putLoaded(User user, long stamp) {
+        if (evictedSince(user.getId(), stamp)) {
+            staleLoads.incrementAndGet();
+            return;
+        }
+        put(user);
+        Entry entry = users.get(user.getId());
+        // an evict between the check and the put has already run or will remove it after us, re-check for the former
+        if (entry != null && entry.user() == user && evictedSince(user.getId(), stamp)) {
+            users.remove(user.getId(), entry);
+            staleLoads.incrementAndGet();
+        }
+    }
+
+    private boolean evictedSince(int id, long stamp) {
+        Long evicted = evictedAt.get(id);
+        return stamp < evictedBefore || (evicted != null && evicted > stamp);
+    }
+
+    // Serialized so a prune of evictedAt never drops a concurrent eviction
+    public synchronized void evict(int id) {
+        if (evictedAt.size() >= maxEntries) {
+            evictedBefore = sequence.get() + 1;
+            evictedAt.clear();
+        }
+        evictedAt.put(id, sequence.incrementAndGet());
+        if (users.remove(id) != null) {
+            evictions.incrementAndGet();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", users.size());
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRatio", hitCount + missCount == 0 ? 0.0 : (double) hitCount / (hitCount + missCount));
+        stats.put("puts", puts.get());
+        stats.put("evictions", evictions.get());
+        stats.put("staleLoads", staleLoads.get());
+        return stats;
+    }
+}
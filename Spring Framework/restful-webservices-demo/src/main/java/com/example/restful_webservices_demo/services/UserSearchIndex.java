@@ -0,0 +1,187 @@
+package com.example.restful_webservices_demo.services;
+
+import com.example.restful_webservices_demo.exception.SearchIndexNotReadyException;
+import com.example.restful_webservices_demo.interfaces.UserServiceInterface;
+import com.example.restful_webservices_demo.model.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Supplier;
+
+// In-memory prefix index over name, email and address, so lookups never touch the database.
+// Each field is a sorted set of "lowercased value \0 id" keys: a prefix query is a tailSet walk that stops
+// at the first key not starting with the prefix, so cost is O(log n + offset + size).
+// Built from a streamed scan at startup, then kept current by addUser/bulk ingest (put) and updateUserDetails (refresh).
+// Queries throw SearchIndexNotReadyException (503) until the scan is done rather than return partial results.
+// Ids written while the scan runs are remembered, and their scanned rows (possibly older) are skipped.
+@Component
+public class UserSearchIndex {
+    private static final Logger logger = LoggerFactory.getLogger(UserSearchIndex.class);
+    public static final List<String> FIELDS = List.of("name", "email", "address");
+    private static final char SEPARATOR = '\0';
+
+    @Autowired
+    @Lazy
+    private UserServiceInterface userService;
+
+    private final Map<String, NavigableSet<String>> keysByField = new HashMap<>();
+    private final Map<Integer, Map<String, Object>> users = new ConcurrentHashMap<>();
+    private final Map<String, Integer> idByEmail = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+    // Ids put by writers while build() runs, null otherwise. Guarded by this.
+    private Set<Integer> writtenDuringBuild;
+
+    public UserSearchIndex() {
+        for (String field : FIELDS) {
+            keysByField.put(field, new ConcurrentSkipListSet<>());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        long start = System.currentTimeMillis();
+        synchronized (this) {
+            writtenDuringBuild = new HashSet<>();
+        }
+        try {
+            userService.streamUsers(null, List.of("name", "email", "address"),
+                    row -> putScanned((Integer) row.get("id"), (String) row.get("name"), (String) row.get("email"), (String) row.get("address")));
+        } finally {
+            synchronized (this) {
+                writtenDuringBuild = null;
+            }
+        }
+        ready = true;
+        logger.info("User search index built with {} users in {} ms", users.size(), System.currentTimeMillis() - start);
+    }
+
+    public void put(User user) {
+        put(user.getId(), user.getName(), user.getEmail(), user.getAddress());
+    }
+
+    // Writers are serialized so the remove-old / add-new pair for one user is not interleaved with another write
+    public synchronized void put(int id, String name, String email, String address) {
+        if (writtenDuringBuild != null) {
+            writtenDuringBuild.add(id);
+        }
+        index(id, name, email, address);
+    }
+
+    // Re-reads the row after an update and indexes what the database holds. The read runs under the writer lock,
+    // so the last refresh of an id starts after the last committed update and concurrent updates end up in commit order.
+    public synchronized void refresh(int id, Supplier<Optional<User>> loader) {
+        Optional<User> user = loader.get();
+        if (writtenDuringBuild != null) {
+            writtenDuringBuild.add(id);
+        }
+        if (user.isPresent()) {
+            index(id, user.get().getName(), user.get().getEmail(), user.get().getAddress());
+        } else {
+            unindex(id);
+        }
+    }
+
+    // A row read by build(); a writer's newer values for the id win
+    private synchronized void putScanned(int id, String name, String email, String address) {
+        if (writtenDuringBuild != null && writtenDuringBuild.contains(id)) {
+            return;
+        }
+        index(id, name, email, address);
+    }
+
+    private void index(int id, String name, String email, String address) {
+        unindex(id);
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("id", id);
+        summary.put("name", name);
+        summary.put("email", email);
+        summary.put("address", address);
+        users.put(id, Collections.unmodifiableMap(summary));
+        for (String field : FIELDS) {
+            String value = (String) summary.get(field);
+            if (value != null) {
+                keysByField.get(field).add(key(value, id));
+            }
+        }
+        if (email != null) {
+            idByEmail.put(normalize(email), id);
+        }
+    }
+
+    private void unindex(int id) {
+        Map<String, Object> previous = users.remove(id);
+        if (previous != null) {
+            for (String field : FIELDS) {
+                String value = (String) previous.get(field);
+                if (value != null) {
+                    keysByField.get(field).remove(key(value, id));
+                }
+            }
+            Object previousEmail = previous.get("email");
+            if (previousEmail != null) {
+                idByEmail.remove(normalize((String) previousEmail), id);
+            }
+        }
+    }
+
+    // Case-insensitive prefix match on one field, ordered by value then id
+    public List<Map<String, Object>> searchPrefix(String field, String prefix, int page, int size) {
+        checkReady();
+        NavigableSet<String> keys = keysByField.get(field);
+        if (keys == null) {
+            throw new IllegalArgumentException("Unknown search field " + field);
+        }
+        String normalizedPrefix = normalize(prefix);
+        long skip = (long) page * size;
+        List<Map<String, Object>> result = new ArrayList<>(size);
+        for (String key : keys.tailSet(normalizedPrefix, true)) {
+            if (!key.startsWith(normalizedPrefix)) {
+                break;
+            }
+            if (skip > 0) {
+                skip--;
+                continue;
+            }
+            Map<String, Object> user = users.get(Integer.parseInt(key.substring(key.lastIndexOf(SEPARATOR) + 1)));
+            if (user != null) {
+                result.add(user);
+            }
+            if (result.size() == size) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    public Optional<Map<String, Object>> findByEmail(String email) {
+        checkReady();
+        Integer id = idByEmail.get(normalize(email));
+        return id == null ? Optional.empty() : Optional.ofNullable(users.get(id));
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    private void checkReady() {
+        if (!ready) {
+            throw new SearchIndexNotReadyException();
+        }
+    }
+
+    private static String key(String value, int id) {
+        return normalize(value) + SEPARATOR + id;
+    }
+
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+}
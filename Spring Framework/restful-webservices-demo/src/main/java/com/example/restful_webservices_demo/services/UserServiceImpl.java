@@ -1,21 +1,52 @@
 package com.example.restful_webservices_demo.services;
 
+import com.example.restful_webservices_demo.exception.UserNotFoundException;
 import com.example.restful_webservices_demo.interfaces.UserRepository;
 import com.example.restful_webservices_demo.interfaces.UserServiceInterface;
 import com.example.restful_webservices_demo.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class UserServiceImpl implements UserServiceInterface {
+    // Columns a client may ask for with ?fields=, id is always returned (it is the cursor)
+    private static final List<String> USER_FIELDS = List.of("id", "name", "address", "email", "phoneno");
+
     @Autowired
     UserRepository userRepository;
+
+    @Autowired
+    UserCache userCache;
+
+    @Autowired
+    UserSearchIndex userSearchIndex;
+
+    @PersistenceContext
+    EntityManager entityManager;
+
+    @Value("${app.user.stream.fetch-size:500}")
+    private int streamFetchSize;
+
     @Override
     public User addUser(User user) {
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        userCache.put(saved);
+        userSearchIndex.put(saved);
+        return saved;
     }
 
     @Override
@@ -23,18 +54,120 @@ public class UserServiceImpl implements UserServiceInterface {
         return userRepository.findAll();
     }
 
+    // One page, keyset (id > afterId) when afterId is given, otherwise offset page * size
+    @Override
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getUsers(int page, int size, Integer afterId, List<String> fields) {
+        List<String> columns = resolveFields(fields);
+        TypedQuery<Object[]> query = projectionQuery(columns, afterId);
+        if (afterId == null) {
+            query.setFirstResult(page * size);
+        }
+        query.setMaxResults(size);
+        List<Map<String, Object>> users = new ArrayList<>();
+        for (Object[] row : query.getResultList()) {
+            users.add(toMap(columns, row));
+        }
+        return users;
+    }
+
+    // All users after afterId, read through a JDBC cursor so only fetchSize rows are in memory at once
+    @Override
+    @Transactional(readOnly = true)
+    public void streamUsers(Integer afterId, List<String> fields, Consumer<Map<String, Object>> consumer) {
+        List<String> columns = resolveFields(fields);
+        TypedQuery<Object[]> query = projectionQuery(columns, afterId);
+        query.setHint(HibernateHints.HINT_FETCH_SIZE, streamFetchSize);
+        query.setHint(HibernateHints.HINT_READ_ONLY, true);
+        try (Stream<Object[]> rows = query.getResultStream()) {
+            rows.forEach(row -> consumer.accept(toMap(columns, row)));
+        }
+    }
+
+    private TypedQuery<Object[]> projectionQuery(List<String> columns, Integer afterId) {
+        StringBuilder jpql = new StringBuilder("select ");
+        for (int i = 0; i < columns.size(); i++) {
+            jpql.append(i == 0 ? "" : ", ").append("u.").append(columns.get(i));
+        }
+        jpql.append(" from User u");
+        if (afterId != null) {
+            jpql.append(" where u.id > :afterId");
+        }
+        jpql.append(" order by u.id");
+        TypedQuery<Object[]> query = entityManager.createQuery(jpql.toString(), Object[].class);
+        if (afterId != null) {
+            query.setParameter("afterId", afterId);
+        }
+        return query;
+    }
+
+    private List<String> resolveFields(List<String> fields) {
+        if (fields == null || fields.isEmpty()) {
+            return USER_FIELDS;
+        }
+        List<String> columns = new ArrayList<>();
+        columns.add("id");
+        for (String field : fields) {
+            String name = field.trim();
+            if (!USER_FIELDS.contains(name)) {
+                throw new IllegalArgumentException("Unknown user field " + name);
+            }
+            if (!columns.contains(name)) {
+                columns.add(name);
+            }
+        }
+        return columns;
+    }
+
+    private static Map<String, Object> toMap(List<String> columns, Object[] row) {
+        Map<String, Object> user = new LinkedHashMap<>();
+        for (int i = 0; i < columns.size(); i++) {
+            user.put(columns.get(i), row[i]);
+        }
+        return user;
+    }
+
     @Override
     public Optional<User> getUserById(int id) {
-        return userRepository.findById(id);
+        User cached = userCache.get(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        long stamp = userCache.loadStamp();
+        Optional<User> user = userRepository.findById(id);
+        user.ifPresent(found -> userCache.putLoaded(found, stamp));
+        return user;
     }
 
+    // Writes the request body to row id (the body's own id is ignored) in one statement, then evicts the cached copy.
+    // Evicting rather than caching newUser: two updates can finish their puts in the other order than they committed.
+    // For the same reason the search index re-reads the committed row instead of indexing newUser.
     @Override
     public User updateUserDetails(int id, User newUser) {
-        User userData=userRepository.findById(id).orElse(null);
-        if(userData!=null){
-            return userRepository.save(newUser);
-        }else{
-         throw new RuntimeException("User not found with id"+id);
+        int updated = userRepository.updateDetails(id, newUser.getName(), newUser.getAddress(),
+                newUser.getEmail(), newUser.getPhoneno());
+        if (updated == 0) {
+            userCache.evict(id);
+            throw new UserNotFoundException(id);
         }
+        newUser.setId(id);
+        userCache.evict(id);
+        userSearchIndex.refresh(id, () -> userRepository.findById(id));
+        return newUser;
+    }
+
+    @Override
+    public Map<String, Object> getCacheStats() {
+        return userCache.getStats();
+    }
+
+    @Override
+    public List<Map<String, Object>> searchUsers(String field, String prefix, int page, int size) {
+        return userSearchIndex.searchPrefix(field, prefix, page, size);
+    }
+
+    @Override
+    public Optional<Map<String, Object>> findUserByEmail(String email) {
+        return userSearchIndex.findByEmail(email);
     }
 }
@@ -0,0 +1,121 @@
+package com.example.restful_webservices_demo.services;
+
+import com.example.restful_webservices_demo.interfaces.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/*
+Per-record outcomes of POST /user/bulk against an embedded database whose email column,
+like MySQL's default collation, ignores case.
+ */
+class BulkUserIngestServiceTests {
+
+	private JdbcTemplate jdbc;
+	private UserRepository userRepository;
+	private UserSearchIndex userSearchIndex;
+	private BulkUserIngestService service;
+
+	@BeforeEach
+	void setUp() {
+		DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:bulk;DB_CLOSE_DELAY=-1;NON_KEYWORDS=USER;IGNORECASE=TRUE");
+		jdbc = new JdbcTemplate(dataSource);
+		jdbc.execute("CREATE TABLE IF NOT EXISTS user (id INT AUTO_INCREMENT PRIMARY KEY, name VARCHAR(255), "
+				+ "address VARCHAR(255), email VARCHAR(255) UNIQUE, phoneno INT)");
+		jdbc.execute("DELETE FROM user");
+		jdbc.update("INSERT INTO user (name, address, email, phoneno) VALUES ('Old', 'Here', 'Taken@Example.com', 1)");
+
+		NamedParameterJdbcTemplate namedJdbc = new NamedParameterJdbcTemplate(dataSource);
+		userRepository = mock(UserRepository.class);
+		when(userRepository.findExistingEmails(anyCollection())).thenAnswer(invocation -> namedJdbc.queryForList(
+				"SELECT email FROM user WHERE email IN (:emails)",
+				Map.of("emails", invocation.<Collection<String>>getArgument(0)), String.class));
+		userSearchIndex = new UserSearchIndex();
+		ReflectionTestUtils.setField(userSearchIndex, "ready", true);
+
+		service = new BulkUserIngestService();
+		ReflectionTestUtils.setField(service, "objectMapper", new ObjectMapper());
+		ReflectionTestUtils.setField(service, "jdbcTemplate", jdbc);
+		ReflectionTestUtils.setField(service, "transactionTemplate", new TransactionTemplate(new DataSourceTransactionManager(dataSource)));
+		ReflectionTestUtils.setField(service, "userRepository", userRepository);
+		ReflectionTestUtils.setField(service, "userSearchIndex", userSearchIndex);
+		ReflectionTestUtils.setField(service, "batchSize", 100);
+	}
+
+	private List<Map<String, Object>> ingest(String... lines) throws IOException {
+		List<Map<String, Object>> outcomes = new ArrayList<>();
+		service.ingest(new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8)), outcomes::add);
+		outcomes.sort((a, b) -> Long.compare((Long) a.get("index"), (Long) b.get("index")));
+		return outcomes;
+	}
+
+	private static String user(String name, String email) {
+		return "{\"name\":\"" + name + "\",\"address\":\"Street\",\"email\":" + (email == null ? "null" : "\"" + email + "\"") + ",\"phoneno\":5}";
+	}
+
+	private Integer countByEmail(String email) {
+		return jdbc.queryForObject("SELECT count(*) FROM user WHERE email = ?", Integer.class, email);
+	}
+
+	@Test
+	void everyRecordGetsAnOutcome() throws IOException {
+		List<Map<String, Object>> outcomes = ingest(
+				user("Ann", "ann@example.com"),
+				user("Ann again", " ANN@example.com "),
+				user("No email", null),
+				user("Taken", "taken@example.com"),
+				user("Bob", " bob@example.com"));
+
+		assertEquals(5, outcomes.size());
+		assertEquals("CREATED", outcomes.get(0).get("status"));
+		assertNotNull(outcomes.get(0).get("id"));
+		assertEquals("REJECTED", outcomes.get(1).get("status"));
+		assertTrue(((String) outcomes.get(1).get("error")).startsWith("Duplicate email in request"));
+		assertEquals("REJECTED", outcomes.get(2).get("status"));
+		assertEquals("REJECTED", outcomes.get(3).get("status"));
+		assertTrue(((String) outcomes.get(3).get("error")).startsWith("Email already exists"));
+		assertEquals("CREATED", outcomes.get(4).get("status"));
+		assertEquals(1, countByEmail("bob@example.com"));
+		assertTrue(userSearchIndex.findByEmail("bob@example.com").isPresent());
+	}
+
+	@Test
+	void failedBatchIsRolledBackBeforeTheRetry() throws IOException {
+		// The email is taken after the IN query ran, so the batch insert itself fails.
+		when(userRepository.findExistingEmails(anyCollection())).thenReturn(List.of());
+
+		List<Map<String, Object>> outcomes = ingest(
+				user("Ann", "ann@example.com"),
+				user("Bob", "bob@example.com"),
+				user("Taken", "taken@example.com"),
+				user("Cid", "cid@example.com"));
+
+		assertEquals(List.of("CREATED", "CREATED", "REJECTED", "CREATED"),
+				outcomes.stream().map(outcome -> outcome.get("status")).toList());
+		for (int i : new int[]{0, 1, 3}) {
+			assertNotNull(outcomes.get(i).get("id"), "record " + i + " has no id");
+		}
+		assertEquals(1, countByEmail("ann@example.com"));
+		assertEquals(4, jdbc.queryForObject("SELECT count(*) FROM user", Integer.class));
+	}
+}
@@ -0,0 +1,81 @@
+package com.example.restful_webservices_demo.services;
+
+import com.example.restful_webservices_demo.interfaces.UserRepository;
+import com.example.restful_webservices_demo.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserCacheTests {
+
+	private UserCache userCache;
+	private UserRepository userRepository;
+	private UserServiceImpl userService;
+
+	@BeforeEach
+	void setUp() {
+		userCache = new UserCache();
+		ReflectionTestUtils.setField(userCache, "ttlMillis", 600_000L);
+		ReflectionTestUtils.setField(userCache, "maxEntries", 100);
+		userRepository = mock(UserRepository.class);
+		userService = new UserServiceImpl();
+		userService.userRepository = userRepository;
+		userService.userCache = userCache;
+		userService.userSearchIndex = new UserSearchIndex();
+	}
+
+	private static User user(int id, String name) {
+		User user = new User();
+		user.setId(id);
+		user.setName(name);
+		user.setEmail(name.toLowerCase() + "@example.com");
+		return user;
+	}
+
+	@Test
+	void loadedUserIsCached() {
+		long stamp = userCache.loadStamp();
+		userCache.putLoaded(user(1, "Ann"), stamp);
+		assertEquals("Ann", userCache.get(1).getName());
+	}
+
+	@Test
+	void loadOverlappingAnEvictionIsDropped() {
+		long stamp = userCache.loadStamp();
+		userCache.evict(1);
+		userCache.putLoaded(user(1, "Old"), stamp);
+		assertNull(userCache.get(1));
+	}
+
+	@Test
+	void updateEvictsSoTheNextReadSeesTheNewRow() {
+		when(userRepository.findById(1)).thenReturn(Optional.of(user(1, "Old")), Optional.of(user(1, "New")));
+		when(userRepository.updateDetails(eq(1), any(), any(), any(), anyInt())).thenReturn(1);
+
+		assertEquals("Old", userService.getUserById(1).orElseThrow().getName());
+		userService.updateUserDetails(1, user(0, "New"));
+		assertNull(userCache.get(1));
+		assertEquals("New", userService.getUserById(1).orElseThrow().getName());
+	}
+
+	@Test
+	void readMissRacingAnUpdateDoesNotCacheTheOldRow() {
+		when(userRepository.updateDetails(eq(1), any(), any(), any(), anyInt())).thenReturn(1);
+		// The update commits while the read is between its SELECT and its cache put.
+		when(userRepository.findById(1)).thenAnswer(invocation -> {
+			Optional<User> old = Optional.of(user(1, "Old"));
+			userService.updateUserDetails(1, user(0, "New"));
+			return old;
+		});
+
+		assertEquals("Old", userService.getUserById(1).orElseThrow().getName());
+		assertNull(userCache.get(1));
+	}
+}
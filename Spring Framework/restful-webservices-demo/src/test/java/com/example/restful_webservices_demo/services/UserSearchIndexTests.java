@@ -0,0 +1,106 @@
+package com.example.restful_webservices_demo.services;
+
+import com.example.restful_webservices_demo.exception.SearchIndexNotReadyException;
+import com.example.restful_webservices_demo.interfaces.UserRepository;
+import com.example.restful_webservices_demo.interfaces.UserServiceInterface;
+import com.example.restful_webservices_demo.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserSearchIndexTests {
+
+	private UserServiceInterface userService;
+	private UserSearchIndex index;
+
+	@BeforeEach
+	void setUp() {
+		userService = mock(UserServiceInterface.class);
+		index = new UserSearchIndex();
+		ReflectionTestUtils.setField(index, "userService", userService);
+	}
+
+	private static Map<String, Object> row(int id, String name, String email) {
+		return Map.of("id", id, "name", name, "email", email, "address", "Street");
+	}
+
+	@Test
+	void queriesFailUntilTheScanIsDone() {
+		assertThrows(SearchIndexNotReadyException.class, () -> index.searchPrefix("name", "a", 0, 10));
+		assertThrows(SearchIndexNotReadyException.class, () -> index.findByEmail("ann@example.com"));
+		doAnswer(invocation -> {
+			invocation.<Consumer<Map<String, Object>>>getArgument(2).accept(row(1, "Ann", "ann@example.com"));
+			return null;
+		}).when(userService).streamUsers(any(), any(), any());
+		index.build();
+		assertEquals(1, index.searchPrefix("name", "a", 0, 10).size());
+	}
+
+	@Test
+	void scannedRowDoesNotOverwriteAConcurrentUpdate() {
+		doAnswer(invocation -> {
+			Consumer<Map<String, Object>> consumer = invocation.getArgument(2);
+			consumer.accept(row(1, "Ann", "ann@example.com"));
+			// updateUserDetails commits after the scan read row 2
+			index.put(2, "Bobby", "bobby@example.com", "Street");
+			consumer.accept(row(2, "Bob", "bob@example.com"));
+			return null;
+		}).when(userService).streamUsers(any(), any(), any());
+		index.build();
+
+		assertEquals("Bobby", index.findByEmail("bobby@example.com").orElseThrow().get("name"));
+		assertTrue(index.findByEmail("bob@example.com").isEmpty());
+		assertEquals(1, index.searchPrefix("name", "bob", 0, 10).size());
+	}
+
+	@Test
+	void updatesReachTheIndexInCommitOrder() {
+		ReflectionTestUtils.setField(index, "ready", true);
+		UserRepository userRepository = mock(UserRepository.class);
+		UserServiceImpl service = new UserServiceImpl();
+		service.userRepository = userRepository;
+		UserCache userCache = new UserCache();
+		ReflectionTestUtils.setField(userCache, "ttlMillis", 600_000L);
+		ReflectionTestUtils.setField(userCache, "maxEntries", 100);
+		service.userCache = userCache;
+		service.userSearchIndex = index;
+
+		AtomicReference<User> row = new AtomicReference<>();
+		when(userRepository.findById(1)).thenAnswer(invocation -> Optional.of(row.get()));
+		when(userRepository.updateDetails(eq(1), any(), any(), any(), anyInt())).thenAnswer(invocation -> {
+			String name = invocation.getArgument(1);
+			row.set(user(name));
+			if (name.equals("First")) {
+				// The second PUT commits and indexes before the first one reaches the index.
+				service.updateUserDetails(1, user("Second"));
+			}
+			return 1;
+		});
+
+		service.updateUserDetails(1, user("First"));
+
+		assertEquals("Second", index.findByEmail("second@example.com").orElseThrow().get("name"));
+		assertTrue(index.findByEmail("first@example.com").isEmpty());
+		assertTrue(index.searchPrefix("name", "first", 0, 10).isEmpty());
+	}
+
+	private static User user(String name) {
+		User user = new User();
+		user.setId(1);
+		user.setName(name);
+		user.setEmail(name.toLowerCase() + "@example.com");
+		user.setAddress("Street");
+		return user;
+	}
+}